@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the schema with one owner, one booker, {@code items} items and {@code bookings} bookings
+ * spread over the past and next year. Rows are written with JDBC batches, bypassing the services.
+ */
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    static final String[] WORDS = {
+        "дрель", "перфоратор", "шуруповёрт", "лобзик", "болгарка", "пила", "рубанок", "фрезер",
+        "стремянка", "палатка", "велосипед", "самокат", "сапборд", "байдарка", "проектор", "колонка",
+        "камера", "штатив", "генератор", "компрессор"
+    };
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+
+    public Dataset generate(int items, int bookings, long seed) {
+        Random random = new Random(seed);
+
+        long ownerId = insertUser("owner");
+        long bookerId = insertUser("booker");
+
+        List<Object[]> itemRows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            itemRows.add(new Object[]{word + " " + i, "Описание: " + word + ", почти новый, экземпляр " + i, ownerId});
+        }
+        batch("insert into items (name, description, is_available, owner_id) values (?, ?, true, ?)", itemRows);
+
+        List<Long> itemIds = jdbc.queryForList("select id from items where owner_id = ? order by id", Long.class, ownerId);
+
+        LocalDateTime base = LocalDateTime.now().minusYears(1);
+        String[] statuses = {"APPROVED", "APPROVED", "APPROVED", "WAITING", "REJECTED"};
+        List<Object[]> bookingRows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(2 * 365 * 24));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+            bookingRows.add(new Object[]{
+                Timestamp.valueOf(start),
+                Timestamp.valueOf(end),
+                itemIds.get(random.nextInt(itemIds.size())),
+                bookerId,
+                statuses[random.nextInt(statuses.length)]
+            });
+            if (bookingRows.size() == BATCH_SIZE) {
+                insertBookings(bookingRows);
+                bookingRows.clear();
+            }
+        }
+        insertBookings(bookingRows);
+
+        // строки сводки заводим устаревшими, как в V6: пересчитаются при чтении или плановым обновлением
+        jdbc.update("insert into item_booking_summary (item_id, valid_until)"
+                + " select distinct item_id, timestamp '1970-01-01 00:00:00' from bookings"
+                + " where status = 'APPROVED' and item_id in (select id from items where owner_id = ?)", ownerId);
+
+        return new Dataset(ownerId, bookerId, itemIds);
+    }
+
+    private long insertUser(String name) {
+        String email = name + "-" + System.nanoTime() + "@bench.local";
+        jdbc.update("insert into users (name, email) values (?, ?)", name, email);
+        return jdbc.queryForObject("select id from users where email = ?", Long.class, email);
+    }
+
+    private void insertBookings(List<Object[]> rows) {
+        batch("insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    public record Dataset(long ownerId, long bookerId, List<Long> itemIds) {
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.benchmark;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running server: {@code concurrency} clients repeatedly call the
+ * read endpoints for {@code seconds} and the run reports throughput and latency percentiles.
+ *
+ * <p>Compare the two execution modes on the same database:
+ * <pre>
+ * java -jar target/shareit-0.0.1-SNAPSHOT.jar --spring.profiles.active=load-test
+ * java -jar target/shareit-0.0.1-SNAPSHOT.jar --spring.profiles.active=load-test,virtual-threads
+ * mvn -f benchmarks/pom.xml compile exec:exec -Pload-test -Dload.args="http://localhost:8080 2000 60"
+ * </pre>
+ *
+ * <p>The fourth argument selects how owner bookings are listed: {@code blocking} (default,
+ * {@code GET /bookings/owner} over JPA) or {@code reactive} ({@code GET /reactive/bookings/owner}
+ * over R2DBC, server started with the {@code reactive} profile). While the load runs, connection
+ * usage of both pools is sampled from actuator and reported next to the latencies.
+ */
+public class HttpLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.eE+-]+)");
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final List<String> POOL_GAUGES =
+            List.of("hikaricp.connections.active", "shareit.r2dbc.connections.acquired");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        boolean reactive = args.length > 3 && "reactive".equals(args[3]);
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long ownerId = createUser(client, baseUrl);
+        long bookerId = createUser(client, baseUrl);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < 10; i++) {
+            long itemId = id(post(client, baseUrl + "/items", ownerId,
+                    "{\"name\":\"Дрель " + i + "\",\"description\":\"Аккумуляторная дрель\",\"available\":true}"));
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                long bookingId = id(post(client, baseUrl + "/bookings", bookerId,
+                        "{\"itemId\":" + itemId + ",\"start\":\"" + start.plusDays(b)
+                                + "\",\"end\":\"" + start.plusDays(b).plusHours(2) + "\"}"));
+                patch(client, baseUrl + "/bookings/" + bookingId + "?approved=true", ownerId);
+            }
+        }
+
+        List<HttpRequest> requests = List.of(
+                get(baseUrl + "/items", ownerId),
+                get(baseUrl + "/items/search?size=20&text=" + URLEncoder.encode("дрель", StandardCharsets.UTF_8), ownerId),
+                get(baseUrl + (reactive ? "/reactive/bookings/owner" : "/bookings/owner"), ownerId));
+
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        Map<String, LongSummaryStatistics> poolUsage = new ConcurrentHashMap<>();
+        Thread sampler = Thread.ofVirtual().start(() -> samplePools(client, baseUrl, deadline, poolUsage));
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                List<Long> own = new ArrayList<>();
+                latencies.add(own);
+                int offset = c;
+                clients.submit(() -> {
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        long started = System.nanoTime();
+                        try {
+                            var response = client.send(requests.get(n % requests.size()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        own.add(System.nanoTime() - started);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        sampler.join();
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+
+        System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s%n",
+                concurrency, seconds, all.size(), errors.get(), all.size() / (double) seconds);
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+        poolUsage.forEach((gauge, stats) -> System.out.printf("%s: avg=%.1f max=%d (%d samples)%n",
+                gauge, stats.getAverage(), stats.getMax(), stats.getCount()));
+    }
+
+    private static void samplePools(HttpClient client, String baseUrl, long deadline,
+                                    Map<String, LongSummaryStatistics> usage) {
+        while (System.nanoTime() < deadline) {
+            for (String gauge : POOL_GAUGES) {
+                try {
+                    var response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + gauge))
+                            .GET()
+                            .build(), HttpResponse.BodyHandlers.ofString());
+                    Matcher matcher = VALUE.matcher(response.body());
+                    if (response.statusCode() == 200 && matcher.find()) {
+                        usage.computeIfAbsent(gauge, g -> new LongSummaryStatistics())
+                                .accept(Math.round(Double.parseDouble(matcher.group(1))));
+                    }
+                } catch (Exception e) {
+                    // пул не настроен или сервер перегружен - пропускаем замер
+                }
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long createUser(HttpClient client, String baseUrl) throws Exception {
+        String body = "{\"name\":\"load\",\"email\":\"load-" + System.nanoTime() + "@mail.ru\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return id(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private static long id(String response) {
+        Matcher matcher = ID.matcher(response);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in response: " + response);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String post(HttpClient client, String url, long userId, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static void patch(HttpClient client, String url, long userId) throws Exception {
+        client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static HttpRequest get(String url, long userId) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
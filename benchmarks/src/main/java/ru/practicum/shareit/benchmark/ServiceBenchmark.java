@@ -0,0 +1,145 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against an in-memory H2 dataset of {@code items} items and
+ * {@code bookings} bookings. The item read cache is disabled so that every call hits the database.
+ * Rows written during an iteration are deleted after it, so every iteration measures the same dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"100", "1000"})
+    private int items;
+
+    @Param({"1000", "100000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private DatasetGenerator.Dataset dataset;
+    private JdbcTemplate jdbc;
+    private long lastBookingId;
+    private long lastOutboxEventId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:shareit-bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "shareit.cache.caffeine-spec=maximumSize=0",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+
+        jdbc = context.getBean(JdbcTemplate.class);
+        dataset = new DatasetGenerator(jdbc).generate(items, bookings, 42);
+        context.getBean(ItemSearchIndex.class).warmUp();
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void rememberDataset() {
+        lastBookingId = maxId("bookings");
+        lastOutboxEventId = maxId("outbox_events");
+    }
+
+    // createBooking иначе растил бы таблицу от итерации к итерации и менял долю пересечений
+    @TearDown(Level.Iteration)
+    public void resetDataset() {
+        jdbc.update("delete from bookings where id > ?", lastBookingId);
+        jdbc.update("delete from outbox_events where id > ?", lastOutboxEventId);
+    }
+
+    @Benchmark
+    public List<ItemOwnerDto> getOwnerItems() {
+        return itemService.getOwnerItems(dataset.ownerId());
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        String word = DatasetGenerator.WORDS[ThreadLocalRandom.current().nextInt(DatasetGenerator.WORDS.length)];
+        return itemService.search(word, null, null, 0, 20);
+    }
+
+    @Benchmark
+    public Object createBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> itemIds = dataset.itemIds();
+
+        BookingCreateDto dto = new BookingCreateDto();
+        dto.setItemId(itemIds.get(random.nextInt(itemIds.size())));
+        dto.setStart(LocalDateTime.now().plusHours(1 + random.nextInt(365 * 24)));
+        dto.setEnd(dto.getStart().plusHours(1 + random.nextInt(48)));
+
+        try {
+            return bookingService.create(dataset.bookerId(), dto);
+        } catch (ValidationException e) {
+            return e; // пересечение с подтверждённым — тоже результат проверки
+        }
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookingsPage() {
+        return bookingService.getOwnerBookings(dataset.ownerId(), BookingState.ALL, null, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookingsAll() {
+        return bookingService.getOwnerBookings(dataset.ownerId(), BookingState.ALL, null, 0, null);
+    }
+
+    private long maxId(String table) {
+        return jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+    }
+}
@@ -1,52 +1,152 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.ResourceVersions;
+import ru.practicum.shareit.user.controller.SharerUserId;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
-    public static final String HEADER_USER = "X-Sharer-User-Id";
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    public static final int MAX_BATCH_SIZE = 1000;
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions versions;
 
     @PostMapping
-    public BookingDto create(@RequestHeader(HEADER_USER) Long userId,
+    public BookingDto create(@SharerUserId Long userId,
                              @Valid @RequestBody BookingCreateDto dto) {
         return bookingService.create(userId, dto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(
+            @SharerUserId Long userId,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid @NotNull BookingCreateDto> dtos) {
+        return bookingService.createBatch(userId, dtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> approveBatch(
+            @SharerUserId(mustExist = false) Long userId,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid @NotNull BookingDecisionDto> decisions) {
+        return bookingService.approveBatch(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
-    public BookingDto approve(@RequestHeader(HEADER_USER) Long userId,
+    public BookingDto approve(@SharerUserId(mustExist = false) Long userId,
                               @PathVariable Long bookingId,
                               @RequestParam Boolean approved) {
         return bookingService.approve(userId, bookingId, approved);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@SharerUserId Long userId) {
+        return bookingService.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDto getById(@RequestHeader(HEADER_USER) Long userId,
+    public BookingDto getById(@SharerUserId(mustExist = false) Long userId,
                               @PathVariable Long bookingId) {
         return bookingService.getById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader(HEADER_USER) Long userId,
-                                            @RequestParam(required = false, defaultValue = "ALL") String state) {
-        return bookingService.getUserBookings(userId, BookingState.from(state));
+    public ResponseEntity<List<BookingDto>> getUserBookings(
+            @SharerUserId Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size,
+            WebRequest request) {
+        // параметры страницы входят в URL, поэтому в тег их добавлять не нужно
+        String etag = versions.etag(userId,
+                ResourceVersions.booker(userId), ResourceVersions.ITEMS, ResourceVersions.USERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        var bookings = bookingService.getUserBookings(
+                userId, BookingState.from(state), BookingCursor.decode(cursor), from, size);
+        return withNextCursor(bookings, size, etag);
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamUserBookings(
+            @SharerUserId Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") String state) {
+        BookingState bookingState = BookingState.from(state);
+        return ndjson(consumer -> bookingService.streamUserBookings(userId, bookingState, consumer));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader(HEADER_USER) Long userId,
-                                             @RequestParam(required = false, defaultValue = "ALL") String state) {
-        return bookingService.getOwnerBookings(userId, BookingState.from(state));
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(
+            @SharerUserId Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size) {
+        var bookings = bookingService.getOwnerBookings(
+                userId, BookingState.from(state), BookingCursor.decode(cursor), from, size);
+        return withNextCursor(bookings, size, null);
+    }
+
+    @GetMapping(path = "/owner", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamOwnerBookings(
+            @SharerUserId Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") String state) {
+        BookingState bookingState = BookingState.from(state);
+        return ndjson(consumer -> bookingService.streamOwnerBookings(userId, bookingState, consumer));
+    }
+
+    // полная страница -> отдаём курсор на следующую в заголовке, тело остаётся массивом
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size, String etag) {
+        var response = ResponseEntity.ok().eTag(etag);
+        if (size == null || bookings.size() < size) {
+            return response.body(bookings);
+        }
+        return response
+                .header(HEADER_NEXT_CURSOR, BookingCursor.of(bookings.getLast()).encode())
+                .body(bookings);
+    }
+
+    private StreamingResponseBody ndjson(Consumer<Consumer<BookingDto>> source) {
+        return out -> source.accept(dto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.service.ReactiveBookingService;
+import ru.practicum.shareit.user.controller.SharerUserId;
+
+/**
+ * Reactive variants of {@code GET /bookings} and {@code GET /bookings/owner}, streamed as NDJSON.
+ * MVC subscribes to the {@link Flux} and writes elements as they arrive, requesting more only when
+ * the previous one was written, so neither a servlet thread nor a JDBC connection is held while
+ * rows are read and sent.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/reactive/bookings")
+@ConditionalOnProperty("shareit.reactive.r2dbc.url")
+public class ReactiveBookingController {
+
+    private final ReactiveBookingService bookingService;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingDto> getUserBookings(
+            @SharerUserId Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") String state) {
+        return bookingService.getUserBookings(userId, BookingState.from(state));
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingDto> getOwnerBookings(
+            @SharerUserId Long userId,
+            @RequestParam(required = false, defaultValue = "ALL") String state) {
+        return bookingService.getOwnerBookings(userId, BookingState.from(state));
+    }
+}
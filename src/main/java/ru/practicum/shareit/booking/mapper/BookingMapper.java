@@ -5,6 +5,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
@@ -28,6 +29,16 @@ public class BookingMapper {
                 .build();
     }
 
+    /**
+     * Payload of booking events in the outbox feed: the booker is only referenced by id, the feed
+     * carries no personal data.
+     */
+    public static BookingDto toEventDto(Booking booking) {
+        BookingDto dto = toDto(booking);
+        dto.setBooker(UserDto.builder().id(booking.getBooker().getId()).build());
+        return dto;
+    }
+
     public static Booking fromCreateDto(BookingCreateDto dto, Item item, User booker) {
         return Booking.builder()
                 .start(dto.getStart())
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -37,6 +38,9 @@ public class Booking {
     @Column(nullable = false, length = 32)
     private BookingStatus status;
 
+    @Version
+    private Long version;
+
     public enum BookingStatus {
         WAITING, APPROVED, REJECTED, CANCELED
     }
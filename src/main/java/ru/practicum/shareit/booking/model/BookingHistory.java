@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view over all bookings: the live {@code bookings} table plus {@code bookings_archive}.
+ * Only queries that may need archived (long finished) bookings go through it.
+ */
+@Entity
+@Immutable
+@Subselect("""
+        select id, start_date, end_date, item_id, booker_id, status from bookings
+        union all
+        select id, start_date, end_date, item_id, booker_id, status from bookings_archive
+        """)
+@Synchronize({"bookings", "bookings_archive"})
+@Getter
+@NoArgsConstructor
+public class BookingHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    private Booking.BookingStatus status;
+
+    /**
+     * Detached copy for code that works with {@link Booking}; must not be saved.
+     */
+    public Booking toBooking() {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last finished, next upcoming or currently running approved booking of an item.
+ */
+public interface BookingEdgeView {
+
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+    String CURRENT = "CURRENT";
+
+    Long getItemId();
+
+    /**
+     * {@link #LAST}, {@link #NEXT} or {@link #CURRENT}.
+     */
+    String getKind();
+
+    Long getId();
+
+    Long getBookerId();
+
+    /**
+     * End of a last/current booking, start of a next one: when the item's last/next pair changes.
+     */
+    LocalDateTime getChangesAt();
+}
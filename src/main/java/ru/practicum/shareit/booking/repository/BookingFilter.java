@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Booking listing criteria: whose bookings (as booker or as item owner) and in which state.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingFilter {
+    Long bookerId;
+    Long ownerId;
+    BookingState state;
+    LocalDateTime now;
+
+    public static BookingFilter byBooker(Long bookerId, BookingState state) {
+        return new BookingFilter(bookerId, null, state, LocalDateTime.now());
+    }
+
+    public static BookingFilter byOwner(Long ownerId, BookingState state) {
+        return new BookingFilter(null, ownerId, state, LocalDateTime.now());
+    }
+
+    /**
+     * Adds the user and state predicates of this filter to {@code where} and their values to {@code params}.
+     * Shared by the JPQL and the R2DBC listing so both select the same bookings; {@code status} maps a status
+     * to the value bound against the status column.
+     */
+    void addPredicates(Columns columns, List<String> where, Map<String, Object> params,
+                       Function<Booking.BookingStatus, Object> status) {
+        if (bookerId != null) {
+            where.add(columns.bookerId() + " = :userId");
+            params.put("userId", bookerId);
+        } else {
+            where.add(columns.ownerId() + " = :userId");
+            params.put("userId", ownerId);
+        }
+
+        switch (state) {
+            case CURRENT -> {
+                where.add(columns.start() + " < :now and " + columns.end() + " > :now");
+                params.put("now", now);
+            }
+            case PAST -> {
+                where.add(columns.end() + " < :now");
+                params.put("now", now);
+            }
+            case FUTURE -> {
+                where.add(columns.start() + " > :now");
+                params.put("now", now);
+            }
+            case WAITING -> {
+                where.add(columns.status() + " = :status");
+                params.put("status", status.apply(Booking.BookingStatus.WAITING));
+            }
+            case REJECTED -> {
+                where.add(columns.status() + " = :status");
+                params.put("status", status.apply(Booking.BookingStatus.REJECTED));
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Paths of the filtered columns in a listing query.
+     */
+    record Columns(String bookerId, String ownerId, String start, String end, String status) {
+    }
+}
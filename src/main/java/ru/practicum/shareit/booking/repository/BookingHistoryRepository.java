@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Queries over live and archived bookings, see {@link BookingHistory}.
+ */
+public interface BookingHistoryRepository extends Repository<BookingHistory, Long> {
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<BookingHistory> findWithItemAndBookerById(Long id);
+
+    boolean existsByBooker_IdAndItem_IdAndEndIsBeforeAndStatus(
+            Long bookerId, Long itemId, LocalDateTime time, Booking.BookingStatus status);
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
@@ -9,37 +11,117 @@ import ru.practicum.shareit.booking.model.Booking;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    List<Booking> findByBooker_Id(Long bookerId, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
-    List<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime start, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findWithItemAndBookerByIdIn(Collection<Long> ids);
 
-    List<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime end, Sort sort);
+    List<Booking> findByItem_IdAndStatusAndEndIsAfter(Long itemId, Booking.BookingStatus status, LocalDateTime end);
 
-    List<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    List<Booking> findByBooker_IdAndStatus(Long bookerId, Booking.BookingStatus status, Sort sort);
-
-    List<Booking> findByItem_Owner_Id(Long ownerId, Sort sort);
-
-    List<Booking> findByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime start, Sort sort);
-
-    List<Booking> findByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime end, Sort sort);
-
-    List<Booking> findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    List<Booking> findByItem_Owner_IdAndStatus(Long ownerId, Booking.BookingStatus status, Sort sort);
-
-    List<Booking> findByItem_IdAndStatus(Long itemId, Booking.BookingStatus status);
+    /**
+     * Bookings of the items in {@code status} that overlap [from, to).
+     */
+    List<Booking> findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(Collection<Long> itemIds,
+                                                                        Booking.BookingStatus status,
+                                                                        LocalDateTime from,
+                                                                        LocalDateTime to);
 
     boolean existsByBooker_IdAndItem_IdAndEndIsBeforeAndStatus(
             Long bookerId, Long itemId, LocalDateTime time, Booking.BookingStatus status);
 
-    List<Booking> findByItem_IdInAndStatus(Collection<Long> itemIds, Booking.BookingStatus status);
+    /**
+     * Moves the booking from {@code expected} to {@code status} only if it is still in {@code expected},
+     * bumping its version; 0 means another transaction decided first. Clears the persistence context.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Booking b
+            set b.status = :status, b.version = b.version + 1
+            where b.id = :id and b.status = :expected
+            """)
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") Booking.BookingStatus expected,
+                     @Param("status") Booking.BookingStatus status);
+
+    /**
+     * Finished bookings (end before the horizon) that can be moved to bookings_archive, locked until
+     * the end of the transaction. Rows locked by another archiver are skipped, so concurrent runs on
+     * several instances take disjoint batches.
+     */
+    @Query(nativeQuery = true, value = """
+            select id from bookings
+            where end_date < :before and status <> 'WAITING'
+            order by end_date
+            limit :limit
+            for update skip locked
+            """)
+    List<Long> findArchivableIds(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status)
+            select id, start_date, end_date, item_id, booker_id, status from bookings where id in (:ids)
+            """)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    /**
+     * For every item: the approved booking that ended last (end <= now), the one that starts next
+     * (start > now) and the running one that ends first (start <= now < end), at most one row of each kind.
+     * Only the last one can be archived.
+     */
+    @Query(nativeQuery = true, value = """
+            select t.item_id as "itemId", t.kind as "kind", t.id as "id", t.booker_id as "bookerId",
+                   t.changes_at as "changesAt"
+            from (
+                select b.item_id, 'LAST' as kind, b.id, b.booker_id, b.end_date as changes_at,
+                       row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn
+                from (select id, item_id, booker_id, status, end_date from bookings
+                      union all
+                      select id, item_id, booker_id, status, end_date from bookings_archive) b
+                where b.item_id in (:itemIds)
+                  and b.status = 'APPROVED'
+                  and b.end_date <= :now
+                union all
+                select b.item_id, 'NEXT' as kind, b.id, b.booker_id, b.start_date as changes_at,
+                       row_number() over (partition by b.item_id order by b.start_date, b.id) as rn
+                from bookings b
+                where b.item_id in (:itemIds)
+                  and b.status = 'APPROVED'
+                  and b.start_date > :now
+                union all
+                select b.item_id, 'CURRENT' as kind, b.id, b.booker_id, b.end_date as changes_at,
+                       row_number() over (partition by b.item_id order by b.end_date, b.id) as rn
+                from bookings b
+                where b.item_id in (:itemIds)
+                  and b.status = 'APPROVED'
+                  and b.start_date <= :now
+                  and b.end_date > :now
+            ) t
+            where t.rn = 1
+            """)
+    List<BookingEdgeView> findLastAndNext(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("now") LocalDateTime now);
+
+    /**
+     * Which of the items have a booking in {@code status} overlapping [start, end).
+     */
+    @Query("""
+            select distinct b.item.id
+            from Booking b
+            where b.item.id in :itemIds
+              and b.status = :status
+              and b.start < :end
+              and b.end > :start
+            """)
+    List<Long> findBusyItemIds(@Param("itemIds") Collection<Long> itemIds,
+                               @Param("status") Booking.BookingStatus status,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end);
 
     @Query("""
             select count(b) > 0
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Bookings matching the filter ordered by (start desc, id desc), starting after the cursor
+     * (if any), skipping {@code from} rows and returning at most {@code size} rows (all when null).
+     * Item and booker are fetched in the same query. Archived bookings are included only for states
+     * that can match them. Returned bookings must not be modified.
+     */
+    List<Booking> findPage(BookingFilter filter, BookingCursor after, int from, Integer size);
+
+    /**
+     * Same as {@link #findPage}, read through a cursor. Returned bookings are detached.
+     * Must be consumed inside a transaction and closed.
+     */
+    Stream<Booking> stream(BookingFilter filter);
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final BookingFilter.Columns COLUMNS =
+            new BookingFilter.Columns("b.booker.id", "b.item.owner.id", "b.start", "b.end", "b.status");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(BookingFilter filter, BookingCursor after, int from, Integer size) {
+        TypedQuery<?> query = createQuery(filter, after);
+        query.setFirstResult(from);
+        if (size != null) {
+            query.setMaxResults(size);
+        }
+        return query.getResultList().stream()
+                .map(BookingRepositoryCustomImpl::toBooking)
+                .toList();
+    }
+
+    @Override
+    public Stream<Booking> stream(BookingFilter filter) {
+        return createQuery(filter, null)
+                .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(entityManager::detach)
+                .map(BookingRepositoryCustomImpl::toBooking);
+    }
+
+    /**
+     * Archived bookings are finished and never WAITING (see BookingArchiver), so only these states
+     * can match them; the rest read the live table alone.
+     */
+    static boolean spansArchive(BookingState state) {
+        return switch (state) {
+            case ALL, PAST, REJECTED -> true;
+            case CURRENT, FUTURE, WAITING -> false;
+        };
+    }
+
+    private static Booking toBooking(Object row) {
+        return row instanceof BookingHistory history ? history.toBooking() : (Booking) row;
+    }
+
+    private TypedQuery<?> createQuery(BookingFilter filter, BookingCursor after) {
+        Class<?> entity = spansArchive(filter.getState()) ? BookingHistory.class : Booking.class;
+
+        // item и booker нужны BookingMapper.toDto, без fetch join это +2 select на строку
+        StringBuilder jpql = new StringBuilder("select b from ").append(entity.getSimpleName())
+                .append(" b join fetch b.item join fetch b.booker");
+
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        filter.addPredicates(COLUMNS, where, params, status -> status);
+
+        if (after != null) {
+            where.add("(b.start < :afterStart or (b.start = :afterStart and b.id < :afterId))");
+            params.put("afterStart", after.getStart());
+            params.put("afterId", after.getId());
+        }
+
+        jpql.append(" where ").append(String.join(" and ", where));
+        jpql.append(" order by b.start desc, b.id desc");
+
+        TypedQuery<?> query = entityManager.createQuery(jpql.toString(), entity);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R2DBC counterpart of {@link BookingRepositoryCustom#stream}: the same listing (filter, order,
+ * archive only when the state needs it), mapped straight from rows to {@link BookingDto}.
+ * Rows are pulled as the subscriber requests them.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty("shareit.reactive.r2dbc.url")
+public class ReactiveBookingRepository {
+
+    private static final String LIVE = "bookings";
+    private static final String WITH_ARCHIVE = """
+            (select id, start_date, end_date, item_id, booker_id, status from bookings
+             union all
+             select id, start_date, end_date, item_id, booker_id, status from bookings_archive)""";
+    private static final BookingFilter.Columns COLUMNS =
+            new BookingFilter.Columns("b.booker_id", "i.owner_id", "b.start_date", "b.end_date", "b.status");
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    public Flux<BookingDto> stream(BookingFilter filter) {
+        String bookings = BookingRepositoryCustomImpl.spansArchive(filter.getState()) ? WITH_ARCHIVE : LIVE;
+        StringBuilder sql = new StringBuilder("""
+                select b.id, b.start_date, b.end_date, b.status,
+                       i.id as item_id, i.name as item_name, i.description as item_description,
+                       i.is_available as item_available, i.request_id as item_request_id, i.owner_id as item_owner_id,
+                       u.id as booker_id, u.name as booker_name, u.email as booker_email
+                from\s""").append(bookings).append("""
+                 b
+                join items i on i.id = b.item_id
+                join users u on u.id = b.booker_id""");
+
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        filter.addPredicates(COLUMNS, where, params, Booking.BookingStatus::name);
+
+        sql.append(" where ").append(String.join(" and ", where));
+        sql.append(" order by b.start_date desc, b.id desc");
+
+        DatabaseClient.GenericExecuteSpec spec = reactiveDatabaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map(ReactiveBookingRepository::toDto).all();
+    }
+
+    private static BookingDto toDto(Readable row) {
+        return BookingDto.builder()
+                .id(row.get("id", Long.class))
+                .start(row.get("start_date", LocalDateTime.class))
+                .end(row.get("end_date", LocalDateTime.class))
+                .status(Booking.BookingStatus.valueOf(row.get("status", String.class)))
+                .item(ItemDto.builder()
+                        .id(row.get("item_id", Long.class))
+                        .name(row.get("item_name", String.class))
+                        .description(row.get("item_description", String.class))
+                        .available(row.get("item_available", Boolean.class))
+                        .requestId(row.get("item_request_id", Long.class))
+                        .ownerId(row.get("item_owner_id", Long.class))
+                        .build())
+                .booker(UserDto.builder()
+                        .id(row.get("booker_id", Long.class))
+                        .name(row.get("booker_name", String.class))
+                        .email(row.get("booker_email", String.class))
+                        .build())
+                .build();
+    }
+}
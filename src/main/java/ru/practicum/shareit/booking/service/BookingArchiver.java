@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings that ended more than {@code shareit.bookings.archive.horizon} ago from
+ * {@code bookings} to {@code bookings_archive}, in batches, each batch in its own transaction.
+ *
+ * <p>WAITING bookings are never archived, so listings of WAITING, CURRENT and FUTURE bookings and
+ * the overlap checks keep reading the small live table only. Each batch locks its rows and skips
+ * rows locked by others, so archivers running on several instances at once move disjoint batches.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.bookings.archive.horizon:90d}") Duration horizon) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.archive.interval:PT1H}")
+    public void archive() {
+        LocalDateTime before = LocalDateTime.now().minus(horizon);
+
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(before));
+            total += moved;
+        } while (moved == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Archived {} bookings that ended before {}", total, before);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime before) {
+        List<Long> ids = bookingRepository.findArchivableIds(before, BATCH_SIZE);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        bookingRepository.copyToArchive(ids);
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxSink;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fan-out of booking changes to {@code GET /bookings/stream} subscribers, keyed by user id: the booker
+ * and the item owner get every create/approve/reject of the booking as a {@link BookingDto}, in the
+ * feed's form: the booker is given by id only.
+ *
+ * <p>Events come from the outbox feed ({@link OutboxSink}), so every instance sees every change,
+ * whichever instance handled the write, and only after it is committed. Subscriptions are
+ * {@link SseEmitter}s on async requests. Neither the relay nor the heartbeat writes to sockets: each
+ * subscriber has a bounded queue drained by its own virtual thread, so a slow client only delays
+ * itself. A subscriber whose queue is full ({@code shareit.bookings.stream.queue-capacity}) is
+ * disconnected. Keep-alive comments go out every {@code shareit.bookings.stream.heartbeat}; a failed
+ * send drops the connection, and clients reconnect after {@code shareit.bookings.stream.timeout}.
+ */
+@Slf4j
+@Component
+public class BookingEventHub implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public BookingEventHub(ObjectMapper objectMapper,
+                           @Value("${shareit.bookings.stream.timeout:30m}") Duration timeout,
+                           @Value("${shareit.bookings.stream.queue-capacity:256}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> result = current != null ? current : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        subscriber.sender.start();
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        for (OutboxEventDto event : events) {
+            if (event.getAggregateType() != OutboxEvent.AggregateType.BOOKING) {
+                continue;
+            }
+
+            BookingDto booking = read(event);
+            if (booking == null) {
+                continue;
+            }
+            send(booking.getBooker().getId(), event, booking);
+            send(booking.getItem().getOwnerId(), event, booking);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber ->
+                subscriber.offer(SseEmitter.event().comment("keep-alive"))));
+    }
+
+    private void send(Long userId, OutboxEventDto event, BookingDto booking) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            // builder одноразовый, на каждое соединение свой
+            subscriber.offer(SseEmitter.event()
+                    .id(Long.toString(event.getOffset()))
+                    .name(event.getType().name())
+                    .data(booking, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, current) -> {
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    // битое событие пропускаем: повтор от OutboxRelay его не исправит
+    private BookingDto read(OutboxEventDto event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), BookingDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping malformed booking event at offset {}", event.getOffset(), e);
+            return null;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final Thread sender;
+        private volatile boolean lagging;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.sender = Thread.ofVirtual().name("booking-stream-" + userId).unstarted(this::drain);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                log.debug("Booking stream of user {} is lagging, disconnecting", userId);
+                lagging = true;
+                close();
+            }
+        }
+
+        void close() {
+            remove(this);
+            sender.interrupt();
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                // закрываем здесь, а не в offer: медленный send держит монитор emitter
+                if (lagging) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Booking stream of user {} disconnected: {}", userId, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
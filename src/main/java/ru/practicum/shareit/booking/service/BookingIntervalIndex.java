@@ -0,0 +1,223 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of approved booking intervals per item.
+ *
+ * <p>Intervals of one item are kept coalesced (start -> end, non-overlapping), so an overlap check
+ * is a single {@link NavigableMap#lowerEntry} lookup. Timelines are loaded lazily from the database
+ * on first access and only hold intervals that have not ended yet: new bookings cannot start in
+ * the past, so finished intervals never take part in a check.
+ *
+ * <p>All access to an item's timeline happens under a striped per-item lock which is held until
+ * the surrounding transaction completes, so concurrent bookings of the same item are serialized
+ * and the index only ever sees committed data. Intervals approved earlier in the same transaction
+ * (a batch of decisions) are kept in a transaction-scoped pending set that overlap checks also see
+ * and that is merged into the index after commit.
+ *
+ * <p>Timelines are bounded in number and dropped when not accessed for a while. Eviction is safe at
+ * any moment: a timeline is only read, merged into or reloaded under its stripe lock, a holder keeps
+ * working on the instance it already has, and the next lock holder reloads committed bookings from
+ * the database. An interval committed after its timeline was evicted is not merged anywhere; the
+ * reload already sees it.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, NavigableMap<LocalDateTime, LocalDateTime>> timelines;
+    private final ReentrantLock[] locks = createLocks();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.interval-index.max-size:100000}") long maxSize,
+                                @Value("${shareit.bookings.interval-index.ttl:30m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    /**
+     * Locks the item until the current transaction completes (commit or rollback).
+     */
+    public void lock(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item lock requires an active transaction");
+        }
+
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Locks several items, always in stripe order, so that concurrent batches cannot deadlock.
+     */
+    public void lockAll(Collection<Long> itemIds) {
+        Map<Integer, Long> byStripe = new TreeMap<>();
+        for (Long itemId : itemIds) {
+            byStripe.putIfAbsent(stripe(itemId), itemId);
+        }
+        byStripe.values().forEach(this::lock);
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        checkLocked(itemId);
+
+        if (overlaps(timeline(itemId), start, end)) {
+            return true;
+        }
+        var pending = pending(false);
+        return pending != null && pending.containsKey(itemId) && overlaps(pending.get(itemId), start, end);
+    }
+
+    /**
+     * Adds an approved booking to the index once the current transaction commits; until then
+     * it is only visible to overlap checks of the same transaction.
+     */
+    public void addOnCommit(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        checkLocked(itemId);
+
+        merge(pending(true).computeIfAbsent(itemId, id -> new TreeMap<>()), booking.getStart(), booking.getEnd());
+    }
+
+    /**
+     * Intervals approved in the current transaction, by item; created on first use and dropped when
+     * the transaction completes.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> pending(boolean create) {
+        var pending = (Map<Long, NavigableMap<LocalDateTime, LocalDateTime>>)
+                TransactionSynchronizationManager.getResource(this);
+        if (pending != null || !create) {
+            return pending;
+        }
+
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> created = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // блокировки предметов ещё держатся: они снимаются в afterCompletion
+                created.forEach((itemId, intervals) -> {
+                    var timeline = timelines.getIfPresent(itemId);
+                    if (timeline != null) {
+                        intervals.forEach((start, end) -> merge(timeline, start, end));
+                    }
+                });
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(BookingIntervalIndex.this);
+            }
+        });
+        return created;
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, LocalDateTime> timeline,
+                                    LocalDateTime start,
+                                    LocalDateTime end) {
+        var entry = timeline.lowerEntry(end); // ближайший интервал, начавшийся до end
+        return entry != null && entry.getValue().isAfter(start);
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> timeline(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        var timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            timeline = new TreeMap<>();
+            for (Booking b : bookingRepository.findByItem_IdAndStatusAndEndIsAfter(
+                    itemId, Booking.BookingStatus.APPROVED, now)) {
+                merge(timeline, b.getStart(), b.getEnd());
+            }
+            timelines.put(itemId, timeline);
+            return timeline;
+        }
+
+        // интервалы не пересекаются и отсортированы, поэтому закончившиеся всегда в начале
+        var first = timeline.firstEntry();
+        while (first != null && !first.getValue().isAfter(now)) {
+            timeline.pollFirstEntry();
+            first = timeline.firstEntry();
+        }
+        return timeline;
+    }
+
+    static void merge(NavigableMap<LocalDateTime, LocalDateTime> timeline,
+                      LocalDateTime start,
+                      LocalDateTime end) {
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+
+        var floor = timeline.floorEntry(start);
+        if (floor != null && !floor.getValue().isBefore(start)) {
+            mergedStart = floor.getKey();
+            mergedEnd = max(mergedEnd, floor.getValue());
+            timeline.remove(floor.getKey());
+        }
+
+        var next = timeline.ceilingEntry(mergedStart);
+        while (next != null && !next.getKey().isAfter(mergedEnd)) {
+            mergedEnd = max(mergedEnd, next.getValue());
+            timeline.remove(next.getKey());
+            next = timeline.ceilingEntry(mergedStart);
+        }
+
+        timeline.put(mergedStart, mergedEnd);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private void checkLocked(Long itemId) {
+        if (!lockFor(itemId).isHeldByCurrentThread()) {
+            throw new IllegalStateException("Item is not locked: " + itemId);
+        }
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        return locks[stripe(itemId)];
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), STRIPES);
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] result = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            result[i] = new ReentrantLock();
+        }
+        return result;
+    }
+}
@@ -1,19 +1,37 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(Long userId, BookingCreateDto dto);
 
+    List<BookingBatchResultDto> createBatch(Long userId, List<BookingCreateDto> dtos);
+
     BookingDto approve(Long ownerId, Long bookingId, boolean approved);
 
+    List<BookingBatchResultDto> approveBatch(Long ownerId, List<BookingDecisionDto> decisions);
+
     BookingDto getById(Long userId, Long bookingId);
 
-    List<BookingDto> getUserBookings(Long userId, BookingState state);
+    List<BookingDto> getUserBookings(Long userId, BookingState state, BookingCursor after, int from, Integer size);
+
+    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, BookingCursor after, int from, Integer size);
+
+    void streamUserBookings(Long userId, BookingState state, Consumer<BookingDto> consumer);
+
+    void streamOwnerBookings(Long ownerId, BookingState state, Consumer<BookingDto> consumer);
 
-    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state);
+    /**
+     * Live create/approve/reject events of bookings where the user is the booker or the item owner.
+     */
+    SseEmitter subscribe(Long userId);
 }
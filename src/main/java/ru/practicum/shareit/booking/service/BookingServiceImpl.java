@@ -1,23 +1,46 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.ResourceVersions;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemReadCache;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,8 +48,16 @@ import java.util.List;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository historyRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIndex;
+    private final ItemReadCache itemCache;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ResourceVersions versions;
+    private final OutboxService outbox;
+    private final BookingEventHub eventHub;
 
     @Override
     @Transactional
@@ -37,38 +68,121 @@ public class BookingServiceImpl implements BookingService {
         var item = itemRepository.findById(dto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item not found: " + dto.getItemId()));
 
+        Booking booking = newBooking(dto, item, booker);
+        booking = bookingRepository.save(booking);
+        versions.bumpOnCommit(ResourceVersions.booker(userId));
+
+        outbox.append(OutboxEvent.AggregateType.BOOKING, booking.getId(), OutboxEvent.EventType.BOOKING_CREATED,
+                BookingMapper.toEventDto(booking));
+        return BookingMapper.toDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBatch(Long userId, List<BookingCreateDto> dtos) {
+        var booker = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
+
+        Set<Long> itemIds = dtos.stream().map(BookingCreateDto::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        bookingIndex.lockAll(items.keySet());
+
+        List<BookingBatchResultDto> results = new ArrayList<>(dtos.size());
+        List<Booking> accepted = new ArrayList<>(dtos.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            var dto = dtos.get(i);
+            try {
+                var item = items.get(dto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Item not found: " + dto.getItemId());
+                }
+                accepted.add(newBooking(dto, item, booker));
+                acceptedIndexes.add(i);
+                results.add(null);
+            } catch (RuntimeException e) {
+                results.add(failed(i, e));
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        versions.bumpOnCommit(ResourceVersions.booker(userId));
+        for (int k = 0; k < saved.size(); k++) {
+            int index = acceptedIndexes.get(k);
+            Booking booking = saved.get(k);
+            outbox.append(OutboxEvent.AggregateType.BOOKING, booking.getId(),
+                    OutboxEvent.EventType.BOOKING_CREATED, BookingMapper.toEventDto(booking));
+            results.set(index, succeeded(index, booking));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public BookingDto approve(Long ownerId, Long bookingId, boolean approved) {
+        var booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found: " + bookingId));
+
+        decide(ownerId, booking, approved);
+
+        return BookingMapper.toDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> approveBatch(Long ownerId, List<BookingDecisionDto> decisions) {
+        Set<Long> bookingIds = decisions.stream().map(BookingDecisionDto::getBookingId).collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> itemIds = bookings.values().stream().map(b -> b.getItem().getId()).collect(Collectors.toSet());
+        bookingIndex.lockAll(itemIds);
+        summaryService.lockItems(itemIds);
+
+        // каждое решение - условный update по статусу, сохранять сущности не нужно
+        List<BookingBatchResultDto> results = new ArrayList<>(decisions.size());
+        for (int i = 0; i < decisions.size(); i++) {
+            var decision = decisions.get(i);
+            try {
+                var booking = bookings.get(decision.getBookingId());
+                if (booking == null) {
+                    throw new NotFoundException("Booking not found: " + decision.getBookingId());
+                }
+                decide(ownerId, booking, decision.getApproved());
+                results.add(succeeded(i, booking));
+            } catch (RuntimeException e) {
+                results.add(failed(i, e));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SseEmitter subscribe(Long userId) {
+        return eventHub.subscribe(userId);
+    }
+
+    private Booking newBooking(BookingCreateDto dto, Item item, User booker) {
         if (!Boolean.TRUE.equals(item.getAvailable())) {
             throw new ValidationException("Item is not available");
         }
-        if (item.getOwner().getId().equals(userId)) {
+        if (item.getOwner().getId().equals(booker.getId())) {
             throw new NotFoundException("Owner cannot book own item");
         }
         if (!dto.getEnd().isAfter(dto.getStart())) {
             throw new ValidationException("Invalid booking time: end must be after start");
         }
 
-        boolean overlap = bookingRepository.existsOverlap(
-                item.getId(),
-                Booking.BookingStatus.APPROVED,
-                dto.getStart(),
-                dto.getEnd()
-        );
-        if (overlap) {
+        bookingIndex.lock(item.getId());
+        if (bookingIndex.overlaps(item.getId(), dto.getStart(), dto.getEnd())) {
             throw new ValidationException("Booking time overlaps with existing approved booking");
         }
 
-        Booking booking = BookingMapper.fromCreateDto(dto, item, booker);
-        booking = bookingRepository.save(booking);
-
-        return BookingMapper.toDto(booking);
+        return BookingMapper.fromCreateDto(dto, item, booker);
     }
 
-    @Override
-    @Transactional
-    public BookingDto approve(Long ownerId, Long bookingId, boolean approved) {
-        var booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Booking not found: " + bookingId));
-
+    private void decide(Long ownerId, Booking booking, boolean approved) {
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new ForbiddenException("Only owner can approve/reject booking");
         }
@@ -81,15 +195,71 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Cannot approve/reject booking that already started");
         }
 
-        booking.setStatus(approved ? Booking.BookingStatus.APPROVED : Booking.BookingStatus.REJECTED);
-        booking = bookingRepository.save(booking);
+        if (approved) {
+            Long itemId = booking.getItem().getId();
+            bookingIndex.lock(itemId);
+            // пока бронирование ждало, могли подтвердить пересекающееся
+            if (bookingIndex.overlaps(itemId, booking.getStart(), booking.getEnd())) {
+                throw new ValidationException("Booking time overlaps with existing approved booking");
+            }
+            changeStatus(booking, Booking.BookingStatus.APPROVED);
+            bookingIndex.addOnCommit(booking);
+            availabilityIndex.occupyOnCommit(booking);
+            summaryService.onApproved(booking);
+            itemCache.evictBookings(itemId);
+            versions.bumpOnCommit(ResourceVersions.item(itemId), ResourceVersions.owner(ownerId));
+        } else {
+            changeStatus(booking, Booking.BookingStatus.REJECTED);
+        }
+        versions.bumpOnCommit(ResourceVersions.booker(booking.getBooker().getId()));
+        outbox.append(OutboxEvent.AggregateType.BOOKING, booking.getId(),
+                approved ? OutboxEvent.EventType.BOOKING_APPROVED : OutboxEvent.EventType.BOOKING_REJECTED,
+                BookingMapper.toEventDto(booking));
+    }
 
-        return BookingMapper.toDto(booking);
+    /**
+     * Atomic WAITING -> status transition: of concurrent decisions on one booking exactly one wins,
+     * the rest see the same error as a sequential second decision. The booking is detached afterwards
+     * and only carries the new status for the response.
+     */
+    private void changeStatus(Booking booking, Booking.BookingStatus status) {
+        int updated = bookingRepository.updateStatus(booking.getId(), Booking.BookingStatus.WAITING, status);
+        if (updated == 0) {
+            throw new ValidationException("Booking status already decided");
+        }
+        booking.setStatus(status);
+    }
+
+    private static BookingBatchResultDto succeeded(int index, Booking booking) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(HttpStatus.OK.value())
+                .booking(BookingMapper.toDto(booking))
+                .build();
+    }
+
+    private static BookingBatchResultDto failed(int index, RuntimeException e) {
+        HttpStatus status;
+        if (e instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ForbiddenException) {
+            status = HttpStatus.FORBIDDEN;
+        } else if (e instanceof ValidationException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            throw e;
+        }
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
     }
 
     @Override
     public BookingDto getById(Long userId, Long bookingId) {
-        var booking = bookingRepository.findById(bookingId)
+        var booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .or(() -> historyRepository.findWithItemAndBookerById(bookingId).map(BookingHistory::toBooking))
                 .orElseThrow(() -> new NotFoundException("Booking not found: " + bookingId));
 
         boolean isBooker = booking.getBooker().getId().equals(userId);
@@ -103,45 +273,34 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long userId, BookingState state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
-
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        LocalDateTime now = LocalDateTime.now();
+    public List<BookingDto> getUserBookings(Long userId, BookingState state,
+                                            BookingCursor after, int from, Integer size) {
+        return bookingRepository.findPage(BookingFilter.byBooker(userId, state), after, from, size)
+                .stream()
+                .map(BookingMapper::toDto)
+                .toList();
+    }
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findByBooker_Id(userId, sort);
-            case CURRENT -> bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(userId, now, now, sort);
-            case PAST -> bookingRepository.findByBooker_IdAndEndIsBefore(userId, now, sort);
-            case FUTURE -> bookingRepository.findByBooker_IdAndStartIsAfter(userId, now, sort);
-            case WAITING -> bookingRepository.findByBooker_IdAndStatus(userId, Booking.BookingStatus.WAITING, sort);
-            case REJECTED -> bookingRepository.findByBooker_IdAndStatus(userId, Booking.BookingStatus.REJECTED, sort);
-        };
+    @Override
+    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state,
+                                             BookingCursor after, int from, Integer size) {
+        return bookingRepository.findPage(BookingFilter.byOwner(ownerId, state), after, from, size)
+                .stream()
+                .map(BookingMapper::toDto)
+                .toList();
+    }
 
-        return bookings.stream().map(BookingMapper::toDto).toList();
+    @Override
+    public void streamUserBookings(Long userId, BookingState state, Consumer<BookingDto> consumer) {
+        try (Stream<Booking> bookings = bookingRepository.stream(BookingFilter.byBooker(userId, state))) {
+            bookings.map(BookingMapper::toDto).forEach(consumer);
+        }
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + ownerId));
-
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findByItem_Owner_Id(ownerId, sort);
-            case CURRENT -> bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(ownerId, now, now, sort);
-            case PAST -> bookingRepository.findByItem_Owner_IdAndEndIsBefore(ownerId, now, sort);
-            case FUTURE -> bookingRepository.findByItem_Owner_IdAndStartIsAfter(ownerId, now, sort);
-            case WAITING ->
-                    bookingRepository.findByItem_Owner_IdAndStatus(ownerId, Booking.BookingStatus.WAITING, sort);
-            case REJECTED ->
-                    bookingRepository.findByItem_Owner_IdAndStatus(ownerId, Booking.BookingStatus.REJECTED, sort);
-            default -> List.of();
-        };
-
-        return bookings.stream().map(BookingMapper::toDto).toList();
+    public void streamOwnerBookings(Long ownerId, BookingState state, Consumer<BookingDto> consumer) {
+        try (Stream<Booking> bookings = bookingRepository.stream(BookingFilter.byOwner(ownerId, state))) {
+            bookings.map(BookingMapper::toDto).forEach(consumer);
+        }
     }
 }
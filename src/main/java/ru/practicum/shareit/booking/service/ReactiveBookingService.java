@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.ReactiveBookingRepository;
+
+/**
+ * Non-blocking booking listings over R2DBC. Writes stay with {@link BookingServiceImpl} and JPA;
+ * the user id is checked by the controller ({@code @SharerUserId}).
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty("shareit.reactive.r2dbc.url")
+public class ReactiveBookingService {
+
+    private final ReactiveBookingRepository bookingRepository;
+
+    public Flux<BookingDto> getUserBookings(Long userId, BookingState state) {
+        return bookingRepository.stream(BookingFilter.byBooker(userId, state));
+    }
+
+    public Flux<BookingDto> getOwnerBookings(Long ownerId, BookingState state) {
+        return bookingRepository.stream(BookingFilter.byOwner(ownerId, state));
+    }
+}
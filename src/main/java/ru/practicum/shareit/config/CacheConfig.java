@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.practicum.shareit.item.service.ItemReadCache;
+
+/**
+ * Read caches: a local Caffeine tier, optionally backed by a shared second tier.
+ *
+ * <p>The second tier is enabled by declaring any {@link CacheManager} bean named
+ * {@value #REMOTE_CACHE_MANAGER} (e.g. a RedisCacheManager). Its values must be serializable by that
+ * manager; cached DTOs implement {@link java.io.Serializable}. Caches are not transaction-aware:
+ * {@link ItemReadCache} defers its evictions to commit and guards its puts itself. Hit/miss metrics
+ * of the local tier are published by actuator under {@code cache.gets}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String REMOTE_CACHE_MANAGER = "remoteCacheManager";
+
+    @Bean
+    public CaffeineCacheManager localCacheManager(
+            @Value("${shareit.cache.caffeine-spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+            String spec) {
+        CaffeineCacheManager manager = new CaffeineCacheManager(ItemReadCache.CACHE_NAMES);
+        manager.setCacheSpecification(spec);
+        manager.setAllowNullValues(false);
+        return manager;
+    }
+
+    @Bean
+    @Primary
+    public CacheManager cacheManager(CaffeineCacheManager localCacheManager,
+                                     @Qualifier(REMOTE_CACHE_MANAGER) ObjectProvider<CacheManager> remote) {
+        CacheManager remoteCacheManager = remote.getIfAvailable();
+        return remoteCacheManager == null
+                ? localCacheManager
+                : new TwoLevelCacheManager(localCacheManager, remoteCacheManager);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC connection pool for the reactive read path ({@code /reactive/bookings}), enabled by
+ * {@code shareit.reactive.r2dbc.url} (see application-reactive.properties).
+ *
+ * <p>The pool is deliberately not exposed as a {@link io.r2dbc.spi.ConnectionFactory} bean: Spring
+ * Boot would then back off the JDBC DataSource and with it the whole JPA write path. Boot's own
+ * R2DBC auto-configuration is excluded in application.properties for the same reason.
+ */
+@Configuration
+@ConditionalOnProperty("shareit.reactive.r2dbc.url")
+public class ReactiveConfig implements DisposableBean {
+
+    private final ConnectionPool pool;
+
+    public ReactiveConfig(@Value("${shareit.reactive.r2dbc.url}") String url,
+                          @Value("${shareit.reactive.r2dbc.username:}") String username,
+                          @Value("${shareit.reactive.r2dbc.password:}") String password,
+                          @Value("${shareit.reactive.r2dbc.max-size:20}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("shareit-r2dbc")
+                .maxSize(maxSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(pool);
+    }
+
+    /**
+     * Pool usage next to {@code hikaricp.connections.active}, for comparing the two read paths.
+     */
+    @Bean
+    public MeterBinder reactivePoolMetrics() {
+        return registry -> {
+            Gauge.builder("shareit.r2dbc.connections.acquired", pool,
+                            p -> p.getMetrics().map(PoolMetrics::acquiredSize).orElse(0))
+                    .register(registry);
+            Gauge.builder("shareit.r2dbc.connections.pending", pool,
+                            p -> p.getMetrics().map(PoolMetrics::pendingAcquireSize).orElse(0))
+                    .register(registry);
+        };
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
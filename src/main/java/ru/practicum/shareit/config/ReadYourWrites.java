@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers when each user last committed a write, so that {@link ReplicaRoutingDataSource} can keep
+ * that user's reads off replicas which have not replayed the write yet.
+ *
+ * <p>The user of the current request is bound by {@link ReadYourWritesFilter} from
+ * {@code X-Sharer-User-Id}. Entries live for the replica max lag: after that every replica still in
+ * use has caught up with the write anyway.
+ */
+public class ReadYourWrites {
+
+    private final ThreadLocal<Long> currentUser = new ThreadLocal<>();
+    private final Cache<Long, Instant> lastWrites;
+
+    public ReadYourWrites(Duration maxLag) {
+        this.lastWrites = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .build();
+    }
+
+    public void bind(Long userId) {
+        currentUser.set(userId);
+    }
+
+    public void clear() {
+        currentUser.remove();
+    }
+
+    /**
+     * When the current user last wrote, or null if replicas are safe to read for them.
+     */
+    public Instant lastWriteOfCurrentUser() {
+        Long userId = currentUser.get();
+        return userId == null ? null : lastWrites.getIfPresent(userId);
+    }
+
+    /**
+     * Records a write of the current user once the current transaction commits.
+     */
+    public void recordOnCommit() {
+        Long userId = currentUser.get();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(userId, Instant.now());
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.user.controller.SharerUserId;
+
+import java.io.IOException;
+
+/**
+ * Binds the requesting user to {@link ReadYourWrites} for the duration of the request. Bodies
+ * streamed on other threads (NDJSON, export) are read without read-your-writes.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        readYourWrites.bind(parseUserId(request.getHeader(SharerUserId.HEADER)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWrites.clear();
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null; // ответ 400 даст SharerUserIdArgumentResolver
+        }
+    }
+}
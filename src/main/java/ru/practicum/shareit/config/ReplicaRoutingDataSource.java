@@ -0,0 +1,131 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to replicas (round robin) and everything else to the
+ * primary. Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so that the connection is chosen once the transaction's read-only flag is known.
+ *
+ * <p>Each replica is probed for how far it has replayed the primary's changes. A replica lagging
+ * more than {@code maxLag} gets no reads, and a user who recently wrote reads only from replicas
+ * that have replayed past that write ({@link ReadYourWrites}). Without a usable replica reads go
+ * to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    // на мастере (не реплике) lsn-функции дают null -> считаем, что отставания нет
+    private static final String POSTGRES_REPLAYED_UNTIL = """
+            select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then now()
+                                 else pg_last_xact_replay_timestamp() end, now())
+            """;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ReadYourWrites readYourWrites;
+    private final Duration maxLag;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicasByUrl,
+                                    ReadYourWrites readYourWrites,
+                                    Duration maxLag) {
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicasByUrl.forEach((url, dataSource) -> {
+            Replica replica = new Replica("replica-" + replicas.size(), url, dataSource);
+            replicas.add(replica);
+            targets.put(replica.key, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.recordOnCommit();
+            return PRIMARY;
+        }
+
+        Instant now = Instant.now();
+        Instant lastWrite = readYourWrites.lastWriteOfCurrentUser();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.isUsable(now, maxLag, lastWrite)) {
+                return replica.key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Refreshes how far each replica has replayed. Replicas other than PostgreSQL standbys (e.g. a
+     * second local H2 in tests) report no replication state and are taken as caught up at probe time.
+     */
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica-probe-interval:PT1S}")
+    public void probeReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                replica.replayedUntil = replica.url.startsWith("jdbc:postgresql:")
+                        ? replica.jdbc.queryForObject(POSTGRES_REPLAYED_UNTIL, Timestamp.class).toInstant()
+                        : Instant.now();
+            } catch (RuntimeException e) {
+                // устаревшее значение само выведет реплику из ротации через maxLag
+                log.warn("Replica {} probe failed: {}", replica.key, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final String url;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private volatile Instant replayedUntil;
+
+        private Replica(String key, String url, DataSource dataSource) {
+            this.key = key;
+            this.url = url;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+
+        boolean isUsable(Instant now, Duration maxLag, Instant lastWrite) {
+            Instant replayed = replayedUntil;
+            return replayed != null
+                    && !replayed.isBefore(now.minus(maxLag))
+                    && (lastWrite == null || !replayed.isBefore(lastWrite));
+        }
+    }
+}
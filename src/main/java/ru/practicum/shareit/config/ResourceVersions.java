@@ -0,0 +1,105 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of read models, for ETags of polled GET endpoints.
+ *
+ * <p>Services bump the keys a write affects after commit; controllers build the ETag from the keys a
+ * response depends on and answer {@code 304 Not Modified} without calling the service when it matches.
+ * A bump takes the next value of one global sequence, so a key never returns to a value it had.
+ * Evicted keys report the highest evicted version: a tag issued before the eviction may stop matching,
+ * but never matches after a change.
+ *
+ * <p>Responses that depend on the clock (last/next bookings, CURRENT/PAST/FUTURE states) also get the
+ * current clock bucket in the tag, so they are recomputed at least once per
+ * {@code shareit.etag.clock-granularity}. Counters are per application instance: tags carry a random
+ * instance id and never match on another instance or after a restart.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String ITEMS = "items";
+    public static final String USERS = "users";
+
+    private static final int MAX_KEYS = 100_000;
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final Cache<String, Long> versions;
+    private final long clockGranularityMillis;
+
+    public ResourceVersions(@Value("${shareit.etag.clock-granularity:1m}") Duration clockGranularity) {
+        this.clockGranularityMillis = clockGranularity.toMillis();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(MAX_KEYS)
+                .evictionListener((String key, Long version, RemovalCause cause) ->
+                        evicted.accumulateAndGet(version, Math::max))
+                .build();
+    }
+
+    public static String item(Long itemId) {
+        return "item:" + itemId;
+    }
+
+    public static String owner(Long ownerId) {
+        return "owner:" + ownerId;
+    }
+
+    public static String booker(Long bookerId) {
+        return "booker:" + bookerId;
+    }
+
+    /**
+     * Bumps the keys once the current transaction commits, or right away outside a transaction.
+     */
+    public void bumpOnCommit(String... keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(keys);
+            }
+        });
+    }
+
+    /**
+     * Weak ETag of a response that {@code viewerId} sees and that depends on the given keys.
+     * Must be taken before the response is computed.
+     */
+    public String etag(Long viewerId, String... keys) {
+        StringBuilder tag = new StringBuilder("W/\"")
+                .append(instance)
+                .append('-').append(viewerId)
+                .append('-').append(System.currentTimeMillis() / clockGranularityMillis);
+        for (String key : keys) {
+            tag.append('-').append(version(key));
+        }
+        return tag.append('"').toString();
+    }
+
+    private long version(String key) {
+        Long version = versions.getIfPresent(key);
+        return version != null ? version : evicted.get();
+    }
+
+    private void bump(String... keys) {
+        for (String key : keys) {
+            versions.put(key, sequence.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Combines a node-local cache with a shared one: reads go local first and fill it from the shared
+ * tier on a miss, writes and evictions go to both. Local tiers of other nodes are not notified,
+ * their staleness is bounded by the local expiry.
+ */
+@RequiredArgsConstructor
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager local;
+    private final CacheManager remote;
+
+    @Override
+    public Cache getCache(String name) {
+        Cache localCache = local.getCache(name);
+        Cache remoteCache = remote.getCache(name);
+        if (localCache == null || remoteCache == null) {
+            return localCache != null ? localCache : remoteCache;
+        }
+        return new TwoLevelCache(localCache, remoteCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return local.getCacheNames();
+    }
+
+    @RequiredArgsConstructor
+    static class TwoLevelCache implements Cache {
+
+        private final Cache local;
+        private final Cache remote;
+
+        @Override
+        public String getName() {
+            return local.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return local.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper value = local.get(key);
+            if (value == null) {
+                value = remote.get(key);
+                if (value != null && value.get() != null) {
+                    local.put(key, value.get());
+                }
+            }
+            return value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Class<T> type) {
+            ValueWrapper value = get(key);
+            Object result = value == null ? null : value.get();
+            if (result != null && type != null && !type.isInstance(result)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + result);
+            }
+            return (T) result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper value = get(key);
+            if (value != null) {
+                return (T) value.get();
+            }
+            T loaded = remote.get(key, valueLoader);
+            if (loaded != null) {
+                local.put(key, loaded);
+            }
+            return loaded;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            remote.put(key, value);
+            local.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = remote.putIfAbsent(key, value);
+            Object effective = existing == null ? value : existing.get();
+            if (effective != null) {
+                local.put(key, effective);
+            }
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            remote.evict(key);
+            local.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            remote.clear();
+            local.clear();
+        }
+    }
+}
@@ -1,14 +1,29 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.config.ResourceVersions;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.controller.SharerUserId;
 
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Validated
@@ -16,17 +31,46 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_AVAILABILITY_ITEMS = 100;
+
     private final ItemService service;
-    public static final String HEADER_USER = "X-Sharer-User-Id";
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions versions;
 
     @PostMapping
-    public ResponseEntity<ItemDto> create(@RequestHeader(HEADER_USER) Long userId,
+    public ResponseEntity<ItemDto> create(@SharerUserId Long userId,
                                           @Valid @RequestBody ItemDto itemDto) {
         return ResponseEntity.ok(service.create(userId, itemDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> createBatch(
+            @SharerUserId Long userId,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid @NotNull ItemDto> itemDtos) {
+        return ResponseEntity.ok(service.createBatch(userId, itemDtos));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ItemImportResultDto> importItems(@SharerUserId Long userId,
+                                                           InputStream body) {
+        return ResponseEntity.ok(service.importItems(userId, body));
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportItems(@SharerUserId Long userId) {
+        return out -> service.exportItems(userId, dto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<CommentDto> addComment(@RequestHeader(HEADER_USER) Long userId,
+    public ResponseEntity<CommentDto> addComment(@SharerUserId Long userId,
                                                  @PathVariable Long itemId,
                                                  @Valid @RequestBody CommentCreateDto dto) {
         return ResponseEntity.ok(service.addComment(userId, itemId, dto));
@@ -35,7 +79,7 @@ public class ItemController {
 
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> update(
-            @RequestHeader(HEADER_USER) Long userId,
+            @SharerUserId(mustExist = false) Long userId,
             @PathVariable Long itemId,
             @RequestBody ItemDto itemDto
     ) {
@@ -43,19 +87,50 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemDetailsDto> getById(@RequestHeader(HEADER_USER) Long userId,
-                                                  @PathVariable Long itemId) {
-        return ResponseEntity.ok(service.getById(userId, itemId));
+    public ResponseEntity<ItemDetailsDto> getById(@SharerUserId Long userId,
+                                                  @PathVariable Long itemId,
+                                                  WebRequest request) {
+        String etag = versions.etag(userId, ResourceVersions.item(itemId), ResourceVersions.USERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.getById(userId, itemId));
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemOwnerDto>> getOwnerItems(@RequestHeader(HEADER_USER) Long userId) {
-        return ResponseEntity.ok(service.getOwnerItems(userId));
+    public ResponseEntity<List<ItemOwnerDto>> getOwnerItems(@SharerUserId Long userId,
+                                                            WebRequest request) {
+        String etag = versions.etag(userId, ResourceVersions.owner(userId), ResourceVersions.USERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.getOwnerItems(userId));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(service.getAvailability(itemId, from, to));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<ItemAvailabilityDto>> getAvailability(
+            @RequestParam @NotEmpty @Size(max = MAX_AVAILABILITY_ITEMS) List<Long> ids,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(service.getAvailability(ids, from, to));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> search(@RequestParam String text) {
-        return ResponseEntity.ok(service.search(text));
+    public ResponseEntity<List<ItemDto>> search(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size) {
+        return ResponseEntity.ok(service.search(text, start, end, from, size));
     }
 
 
@@ -2,10 +2,12 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.*;
 
+import java.io.Serializable;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class BookingShortDto {
+public class BookingShortDto implements Serializable {
     private Long id;
     private Long bookerId;
 }
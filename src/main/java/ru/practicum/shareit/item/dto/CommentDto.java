@@ -2,13 +2,14 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.*;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CommentDto {
+public class CommentDto implements Serializable {
     private Long id;
     private String text;
     private String authorName;
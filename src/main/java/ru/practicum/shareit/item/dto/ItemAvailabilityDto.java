@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Free intervals of an item inside the requested window, in chronological order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<FreeSlot> free;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FreeSlot {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON import: how many lines became items and which lines were rejected.
+ * Only the first {@link #MAX_REPORTED} rejections are listed, {@code rejectedCount} has them all.
+ */
+@Data
+@NoArgsConstructor
+public class ItemImportResultDto {
+    public static final int MAX_REPORTED = 100;
+
+    private long imported;
+    private long rejectedCount;
+    private List<RejectedLine> rejected = new ArrayList<>();
+
+    public void reject(long line, String error) {
+        rejectedCount++;
+        if (rejected.size() < MAX_REPORTED) {
+            rejected.add(new RejectedLine(line, error));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedLine {
+        private long line;
+        private String error;
+    }
+}
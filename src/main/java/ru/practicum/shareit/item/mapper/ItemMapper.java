@@ -5,6 +5,7 @@ import ru.practicum.shareit.item.dto.ItemDetailsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -27,20 +28,22 @@ public class ItemMapper {
                 .build();
     }
 
-    public static Item toItem(ItemDto dto, User owner) {
+    /**
+     * New item from client input; the dto's id is ignored, so saving never overwrites an existing row.
+     */
+    public static Item toItem(ItemDto dto, User owner, ItemRequest request) {
         if (dto == null) return null;
 
         return Item.builder()
-                .id(dto.getId())
                 .name(dto.getName())
                 .description(dto.getDescription())
                 .available(dto.getAvailable())
                 .owner(owner)
-                .request(null) // request проставишь, когда реализуешь requests нормально
+                .request(request)
                 .build();
     }
 
-    public static ItemOwnerDto toOwnerDto(Item item, List<CommentDto> comments) {
+    public static ItemOwnerDto toOwnerDto(ItemDto item, List<CommentDto> comments) {
         if (item == null) return null;
 
         return ItemOwnerDto.builder()
@@ -52,7 +55,7 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemDetailsDto toDetailsDto(Item item, List<CommentDto> comments) {
+    public static ItemDetailsDto toDetailsDto(ItemDto item, List<CommentDto> comments) {
         if (item == null) return null;
 
         return ItemDetailsDto.builder()
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
     List<Item> findByOwner_Id(Long ownerId);
 
-    @Query("select i from Item i " +
-            "where i.available = true and (" +
-            "upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> search(String text);
+    List<Item> findByRequest_IdIn(Collection<Long> requestIds);
+
+    List<Item> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    @Query("select i.id from Item i where i.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks the items' rows until the end of the transaction, in id order, so that callers locking
+     * overlapping sets cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i.id from Item i where i.id in :ids order by i.id")
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Available items with {@code text} in the name or description (case-insensitive), ordered by id,
+     * skipping {@code from} rows and returning at most {@code size} rows (all when null). When start
+     * and end are set, items with an approved booking overlapping [start, end) are left out; the
+     * anti-join is an index lookup on bookings(item_id, status, start_date, end_date).
+     */
+    List<Item> search(String text, LocalDateTime start, LocalDateTime end, int from, Integer size);
+
+    /**
+     * Owner's items ordered by id, read through a cursor. Returned items are detached.
+     * Must be consumed inside a transaction and closed.
+     */
+    Stream<Item> streamByOwner(Long ownerId);
+}
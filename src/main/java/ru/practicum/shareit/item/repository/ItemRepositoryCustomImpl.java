@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, int from, Integer size) {
+        StringBuilder jpql = new StringBuilder("select i from Item i " +
+                "where i.available = true and (" +
+                "upper(i.name) like upper(concat('%', :text, '%')) " +
+                "or upper(i.description) like upper(concat('%', :text, '%')))");
+        if (start != null) {
+            jpql.append(" and not exists (select b.id from Booking b " +
+                    "where b.item = i and b.status = :status and b.start < :end and b.end > :start)");
+        }
+        // без порядка смещение from может пропускать и повторять строки между страницами
+        jpql.append(" order by i.id");
+
+        TypedQuery<Item> query = entityManager.createQuery(jpql.toString(), Item.class)
+                .setParameter("text", text);
+        if (start != null) {
+            query.setParameter("status", Booking.BookingStatus.APPROVED)
+                    .setParameter("start", start)
+                    .setParameter("end", end);
+        }
+        query.setFirstResult(from);
+        if (size != null) {
+            query.setMaxResults(size);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<Item> streamByOwner(Long ownerId) {
+        return entityManager.createQuery("select i from Item i where i.owner.id = :ownerId order by i.id", Item.class)
+                .setParameter("ownerId", ownerId)
+                .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+}
@@ -0,0 +1,277 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto.FreeSlot;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxSink;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory occupancy calendar of items: one bit per hour slot, set when an approved booking
+ * covers any part of the hour.
+ *
+ * <p>A bitmap starts at the hour it was loaded in, covers {@link #HORIZON_SLOTS} hours from there
+ * and only holds approved bookings that had not ended by then, so free intervals of a window are
+ * found with a few {@link BitSet#nextSetBit} / {@link BitSet#nextClearBit} calls. Windows reaching
+ * past the horizon are rare; they are answered from the database and not cached. Bitmaps are
+ * immutable once published: approvals replace them with an updated copy after commit, so readers
+ * never lock.
+ *
+ * <p>Approvals made on other instances arrive through the outbox feed ({@link OutboxSink}) within
+ * the relay interval and are applied the same way. A bitmap loaded from a lagging replica may still
+ * miss an approval whose event came before the load, so bitmaps are reloaded once they are older
+ * than {@code shareit.items.availability.max-age}.
+ *
+ * <p>Granularity is one slot: an hour partly taken by a booking is not reported as free.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityIndex implements OutboxSink {
+
+    static final Duration SLOT = Duration.ofHours(1);
+    private static final long SLOT_SECONDS = SLOT.toSeconds();
+    // окна не длиннее года, так что обычные запросы (на ближайший год) отвечаются из битмапов
+    static final long HORIZON_SLOTS = ItemServiceImpl.MAX_AVAILABILITY_WINDOW.toSeconds() / SLOT_SECONDS;
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeNanos;
+
+    private final Map<Long, Occupancy> occupancies = new ConcurrentHashMap<>();
+    // вещь -> число подтверждений с начала её загрузки; только пока загрузка идёт, под this
+    private final Map<Long, Long> loading = new HashMap<>();
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${shareit.items.availability.max-age:PT1M}") Duration maxAge) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Free intervals of each item within [from, to); the part of the window before now is never free.
+     */
+    public Map<Long, List<FreeSlot>> free(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+
+        Map<Long, List<FreeSlot>> result = new LinkedHashMap<>();
+        if (!start.isBefore(to)) {
+            itemIds.forEach(itemId -> result.put(itemId, List.of()));
+            return result;
+        }
+
+        Map<Long, Occupancy> loaded = slotAfter(to) <= slot(now) + HORIZON_SLOTS
+                ? occupancies(itemIds, now)
+                : load(itemIds, start, to, 0);
+        for (Long itemId : itemIds) {
+            result.put(itemId, loaded.get(itemId).free(start, to));
+        }
+        return result;
+    }
+
+    /**
+     * Marks the booking's hours as taken once the current transaction commits.
+     */
+    public void occupyOnCommit(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                occupy(itemId, start, end);
+            }
+        });
+    }
+
+    /**
+     * Applies approvals from the feed, including this instance's own: setting the slots again is
+     * harmless.
+     */
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        for (OutboxEventDto event : events) {
+            if (event.getType() != OutboxEvent.EventType.BOOKING_APPROVED) {
+                continue;
+            }
+            BookingDto booking = read(event);
+            if (booking != null) {
+                occupy(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            }
+        }
+    }
+
+    private synchronized void occupy(Long itemId, LocalDateTime start, LocalDateTime end) {
+        loading.computeIfPresent(itemId, (id, changes) -> changes + 1);
+        occupancies.computeIfPresent(itemId, (id, occupancy) -> occupancy.with(start, end));
+    }
+
+    private Map<Long, Occupancy> occupancies(Collection<Long> itemIds, LocalDateTime now) {
+        long horizon = slot(now) + HORIZON_SLOTS;
+        long nowNanos = System.nanoTime();
+
+        Map<Long, Occupancy> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Occupancy occupancy = occupancies.get(itemId);
+            // перезагрузка заодно отбрасывает прошедшие часы
+            if (occupancy == null || nowNanos - occupancy.loadedAt() > maxAgeNanos || occupancy.limit() < horizon) {
+                missing.add(itemId);
+            } else {
+                result.put(itemId, occupancy);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, Long> seen = startLoading(missing);
+        Map<Long, Occupancy> loaded;
+        try {
+            loaded = load(missing, now, time(horizon), nowNanos);
+        } catch (RuntimeException e) {
+            stopLoading(missing);
+            throw e;
+        }
+        publish(loaded, seen);
+
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * Bitmaps of [from, to) with the approved bookings overlapping it.
+     */
+    private Map<Long, Occupancy> load(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to, long loadedAt) {
+        Map<Long, Occupancy> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, new Occupancy(slot(from), slotAfter(to), new BitSet(), loadedAt));
+        }
+        for (Booking b : bookingRepository.findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(
+                itemIds, Booking.BookingStatus.APPROVED, from, to)) {
+            loaded.get(b.getItem().getId()).set(b.getStart(), b.getEnd());
+        }
+        return loaded;
+    }
+
+    private synchronized Map<Long, Long> startLoading(Collection<Long> itemIds) {
+        Map<Long, Long> seen = new HashMap<>();
+        for (Long itemId : itemIds) {
+            seen.put(itemId, loading.computeIfAbsent(itemId, id -> 0L));
+        }
+        return seen;
+    }
+
+    private synchronized void stopLoading(Collection<Long> itemIds) {
+        loading.keySet().removeAll(itemIds);
+    }
+
+    private synchronized void publish(Map<Long, Occupancy> loaded, Map<Long, Long> seen) {
+        // подтверждение, закоммиченное во время загрузки вещи, могло не попасть в выборку - её не кэшируем;
+        // при параллельной загрузке той же вещи кэширует не более одной
+        loaded.forEach((itemId, occupancy) -> {
+            if (seen.get(itemId).equals(loading.remove(itemId))) {
+                occupancies.put(itemId, occupancy);
+            }
+        });
+    }
+
+    // битое событие пропускаем: повтор от OutboxRelay его не исправит, а битмап всё равно перезагрузится
+    private BookingDto read(OutboxEventDto event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), BookingDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping malformed booking event at offset {}", event.getOffset(), e);
+            return null;
+        }
+    }
+
+    static long slot(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SLOT_SECONDS);
+    }
+
+    private static long slotAfter(LocalDateTime time) {
+        return slot(time.minusNanos(1)) + 1;
+    }
+
+    private static LocalDateTime time(long slot) {
+        return LocalDateTime.ofEpochSecond(slot * SLOT_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Bit {@code i} is hour slot {@code base + i}, for slots before {@code limit}; later hours are
+     * not tracked. {@code loadedAt} is the {@link System#nanoTime} of the load.
+     */
+    record Occupancy(long base, long limit, BitSet slots, long loadedAt) {
+
+        Occupancy with(LocalDateTime start, LocalDateTime end) {
+            Occupancy copy = new Occupancy(base, limit, (BitSet) slots.clone(), loadedAt);
+            copy.set(start, end);
+            return copy;
+        }
+
+        /**
+         * Only for a bitmap that is not published yet.
+         */
+        void set(LocalDateTime start, LocalDateTime end) {
+            long from = Math.max(slot(start), base);
+            long to = Math.min(slotAfter(end), limit);
+            if (from < to) {
+                slots.set(Math.toIntExact(from - base), Math.toIntExact(to - base));
+            }
+        }
+
+        /**
+         * [from, to) must lie within the tracked slots.
+         */
+        List<FreeSlot> free(LocalDateTime from, LocalDateTime to) {
+            int i = Math.toIntExact(slot(from) - base);
+            int end = Math.toIntExact(slotAfter(to) - base);
+
+            List<FreeSlot> result = new ArrayList<>();
+            while (i < end) {
+                int freeFrom = slots.nextClearBit(i);
+                if (freeFrom >= end) {
+                    break;
+                }
+                int busyFrom = slots.nextSetBit(freeFrom);
+                int freeTo = busyFrom < 0 || busyFrom > end ? end : busyFrom;
+                result.add(new FreeSlot(max(from, time(base + freeFrom)), min(to, time(base + freeTo))));
+                i = freeTo;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingEdgeView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link ItemBookingSummary}, the last/next approved bookings per item.
+ *
+ * <p>A row is written when a booking of the item is approved ({@link #onApproved}) and rewritten
+ * by {@link #refreshStale} once time moves past its {@code validUntil}. Items without a row have
+ * no approved bookings. Both writers hold the item's row lock ({@link #lockItems}) from before they
+ * read until commit, so an approval and a refresh of the same item cannot overwrite each other,
+ * whichever instances run them. Readers never wait for the refresh: rows that are already stale
+ * are recomputed from bookings on read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    static final int REFRESH_BATCH = 100;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Summaries of the items, valid at {@code now}; an empty summary for items without bookings.
+     */
+    public Map<Long, ItemBookingSummary> load(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        List<Long> stale = summaryRepository.findAllById(itemIds).stream()
+                .filter(summary -> {
+                    result.put(summary.getItemId(), summary);
+                    return !summary.isValidAt(now);
+                })
+                .map(ItemBookingSummary::getItemId)
+                .toList();
+        if (!stale.isEmpty()) {
+            result.putAll(compute(stale, now));
+        }
+
+        for (Long itemId : itemIds) {
+            result.computeIfAbsent(itemId, id -> ItemBookingSummary.builder().itemId(id).build());
+        }
+        return result;
+    }
+
+    /**
+     * Locks the items' summaries until the current transaction ends. A batch that approves bookings
+     * of several items takes all locks up front, so that it locks in the same order as the refresh.
+     */
+    public void lockItems(Collection<Long> itemIds) {
+        // блокировки BookingIntervalIndex действуют только внутри JVM, а строки вещей есть всегда,
+        // даже когда сводки ещё нет
+        itemRepository.lockByIdIn(itemIds);
+    }
+
+    /**
+     * Takes a just approved booking into account. The booking has not started yet, so it can only
+     * become the item's next booking.
+     */
+    public void onApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        lockItems(List.of(itemId));
+        LocalDateTime now = LocalDateTime.now();
+
+        ItemBookingSummary summary = summaryRepository.findById(itemId)
+                .filter(s -> s.isValidAt(now))
+                .orElseGet(() -> compute(List.of(itemId), now).get(itemId));
+
+        if (summary.getNextStart() == null || booking.getStart().isBefore(summary.getNextStart())) {
+            summary.setNextBookingId(booking.getId());
+            summary.setNextBookerId(booking.getBooker().getId());
+            summary.setNextStart(booking.getStart());
+        }
+        if (summary.getValidUntil() == null || booking.getStart().isBefore(summary.getValidUntil())) {
+            summary.setValidUntil(booking.getStart());
+        }
+        summaryRepository.save(summary);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    public void refreshStale() {
+        int total = 0;
+        int refreshed;
+        do {
+            refreshed = transactionTemplate.execute(status -> refreshBatch(LocalDateTime.now()));
+            total += refreshed;
+        } while (refreshed == REFRESH_BATCH);
+
+        if (total > 0) {
+            log.debug("Refreshed {} item booking summaries", total);
+        }
+    }
+
+    private int refreshBatch(LocalDateTime now) {
+        List<Long> itemIds = summaryRepository.findStaleItemIds(now, PageRequest.ofSize(REFRESH_BATCH));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+
+        bookingIndex.lockAll(itemIds);
+        lockItems(itemIds);
+        summaryRepository.saveAll(compute(itemIds, now).values());
+        return itemIds.size();
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, List<BookingEdgeView>> edgesByItemId = bookingRepository.findLastAndNext(itemIds, now)
+                .stream()
+                .collect(Collectors.groupingBy(BookingEdgeView::getItemId));
+
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            result.put(itemId, summarize(itemId, edgesByItemId.getOrDefault(itemId, List.of())));
+        }
+        return result;
+    }
+
+    private static ItemBookingSummary summarize(Long itemId, List<BookingEdgeView> edges) {
+        ItemBookingSummary summary = ItemBookingSummary.builder().itemId(itemId).build();
+
+        for (BookingEdgeView edge : edges) {
+            switch (edge.getKind()) {
+                case BookingEdgeView.LAST -> {
+                    summary.setLastBookingId(edge.getId());
+                    summary.setLastBookerId(edge.getBookerId());
+                }
+                case BookingEdgeView.NEXT -> {
+                    summary.setNextBookingId(edge.getId());
+                    summary.setNextBookerId(edge.getBookerId());
+                    summary.setNextStart(edge.getChangesAt());
+                }
+                default -> {
+                }
+            }
+            // пара меняется, когда следующее бронирование начнётся или текущее закончится
+            if (!BookingEdgeView.LAST.equals(edge.getKind())
+                    && (summary.getValidUntil() == null || edge.getChangesAt().isBefore(summary.getValidUntil()))) {
+                summary.setValidUntil(edge.getChangesAt());
+            }
+        }
+        return summary;
+    }
+}
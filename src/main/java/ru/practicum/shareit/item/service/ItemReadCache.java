@@ -0,0 +1,240 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cached building blocks of item details and owner listings: the item itself, owner's items,
+ * comments and last/next bookings per item. Batch lookups load only the missing keys, with one
+ * query per block.
+ *
+ * <p>Last/next bookings come from the {@link ItemBookingSummaryService} read model. They depend on
+ * the clock, so each entry remembers when it stops being valid (start of the next booking or end
+ * of the running one) and is reloaded after that.
+ *
+ * <p>Evictions are applied after the writing transaction commits. A load that runs concurrently
+ * with a write may still read the old state (or read it from a lagging replica right after the
+ * commit), so a key evicted within the last {@code shareit.cache.evict-settle} (by default the
+ * replica max lag) is not cached again until that window has passed, and neither is a value whose
+ * load took longer than the window.
+ */
+@Component
+public class ItemReadCache {
+
+    public static final String ITEMS = "items";
+    public static final String OWNER_ITEMS = "ownerItems";
+    public static final String ITEM_COMMENTS = "itemComments";
+    public static final String ITEM_BOOKINGS = "itemBookings";
+    public static final String[] CACHE_NAMES = {ITEMS, OWNER_ITEMS, ITEM_COMMENTS, ITEM_BOOKINGS};
+
+    private static final Sort COMMENTS_SORT = Sort.by(Sort.Direction.DESC, "created");
+    private static final int MAX_EVICTED_KEYS = 100_000;
+
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemBookingSummaryService summaryService;
+
+    private final Cache items;
+    private final Cache ownerItems;
+    private final Cache itemComments;
+    private final Cache itemBookings;
+
+    private final long settleNanos;
+    private final Map<CacheKey, Boolean> recentlyEvicted;
+
+    public ItemReadCache(ItemRepository itemRepository,
+                         CommentRepository commentRepository,
+                         ItemBookingSummaryService summaryService,
+                         CacheManager cacheManager,
+                         @Value("${shareit.cache.evict-settle:${shareit.datasource.replica-max-lag:10s}}")
+                         Duration settle) {
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.summaryService = summaryService;
+        this.items = cacheManager.getCache(ITEMS);
+        this.ownerItems = cacheManager.getCache(OWNER_ITEMS);
+        this.itemComments = cacheManager.getCache(ITEM_COMMENTS);
+        this.itemBookings = cacheManager.getCache(ITEM_BOOKINGS);
+        this.settleNanos = settle.toNanos();
+        this.recentlyEvicted = Caffeine.newBuilder()
+                .maximumSize(MAX_EVICTED_KEYS)
+                .expireAfterWrite(settle)
+                .<CacheKey, Boolean>build()
+                .asMap();
+    }
+
+    public ItemDto getItem(Long itemId) {
+        ItemDto item = items.get(itemId, ItemDto.class);
+        if (item == null) {
+            long loadStarted = System.nanoTime();
+            item = itemRepository.findById(itemId)
+                    .map(ItemMapper::toItemDto)
+                    .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
+            put(items, itemId, item, loadStarted);
+        }
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<ItemDto> getOwnerItems(Long ownerId) {
+        List<ItemDto> result = ownerItems.get(ownerId, List.class);
+        if (result == null) {
+            long loadStarted = System.nanoTime();
+            result = itemRepository.findByOwner_Id(ownerId).stream()
+                    .map(ItemMapper::toItemDto)
+                    .toList();
+            put(ownerItems, ownerId, result, loadStarted);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds) {
+        Map<Long, List<CommentDto>> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            List<CommentDto> comments = itemComments.get(itemId, List.class);
+            if (comments == null) {
+                missing.add(itemId);
+            } else {
+                result.put(itemId, comments);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long loadStarted = System.nanoTime();
+        Map<Long, List<CommentDto>> loaded = commentRepository.findByItem_IdIn(missing, COMMENTS_SORT)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())
+                ));
+        for (Long itemId : missing) {
+            List<CommentDto> comments = List.copyOf(loaded.getOrDefault(itemId, List.of()));
+            put(itemComments, itemId, comments, loadStarted);
+            result.put(itemId, comments);
+        }
+        return result;
+    }
+
+    public Map<Long, LastNextBookings> getBookings(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, LastNextBookings> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            LastNextBookings bookings = itemBookings.get(itemId, LastNextBookings.class);
+            if (bookings == null || !bookings.isValidAt(now)) {
+                missing.add(itemId);
+            } else {
+                result.put(itemId, bookings);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long loadStarted = System.nanoTime();
+        Map<Long, ItemBookingSummary> summaries = summaryService.load(missing, now);
+        for (Long itemId : missing) {
+            LastNextBookings bookings = LastNextBookings.of(summaries.get(itemId));
+            put(itemBookings, itemId, bookings, loadStarted);
+            result.put(itemId, bookings);
+        }
+        return result;
+    }
+
+    public void evictItem(Long itemId, Long ownerId) {
+        evictOnCommit(items, itemId);
+        evictOnCommit(ownerItems, ownerId);
+    }
+
+    public void evictOwnerItems(Long ownerId) {
+        evictOnCommit(ownerItems, ownerId);
+    }
+
+    public void evictComments(Long itemId) {
+        evictOnCommit(itemComments, itemId);
+    }
+
+    public void evictBookings(Long itemId) {
+        evictOnCommit(itemBookings, itemId);
+    }
+
+    private void put(Cache cache, Long key, Object value, long loadStarted) {
+        CacheKey cacheKey = new CacheKey(cache.getName(), key);
+        // отметка о вытеснении живёт settle: более долгая загрузка могла начаться до уже забытого вытеснения
+        if (System.nanoTime() - loadStarted >= settleNanos || recentlyEvicted.containsKey(cacheKey)) {
+            return;
+        }
+        cache.put(key, value);
+        // вытеснение могло пройти между проверкой и put - тогда убираем своё значение
+        if (recentlyEvicted.containsKey(cacheKey)) {
+            cache.evict(key);
+        }
+    }
+
+    private void evictOnCommit(Cache cache, Long key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(cache, key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(cache, key);
+            }
+        });
+    }
+
+    private void evict(Cache cache, Long key) {
+        // сначала отметка, потом evict: put, проверивший отметку до неё, будет вытеснен следом
+        recentlyEvicted.put(new CacheKey(cache.getName(), key), Boolean.TRUE);
+        cache.evict(key);
+    }
+
+    private record CacheKey(String cache, Long key) {
+    }
+
+    public record LastNextBookings(BookingShortDto last,
+                                   BookingShortDto next,
+                                   LocalDateTime validUntil) implements Serializable {
+
+        static LastNextBookings of(ItemBookingSummary summary) {
+            BookingShortDto last = summary.getLastBookingId() == null ? null
+                    : new BookingShortDto(summary.getLastBookingId(), summary.getLastBookerId());
+            BookingShortDto next = summary.getNextBookingId() == null ? null
+                    : new BookingShortDto(summary.getNextBookingId(), summary.getNextBookerId());
+            return new LastNextBookings(last, next, summary.getValidUntil());
+        }
+
+        boolean isValidAt(LocalDateTime now) {
+            return validUntil == null || now.isBefore(validUntil);
+        }
+    }
+}
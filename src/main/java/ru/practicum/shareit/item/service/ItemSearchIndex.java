@@ -0,0 +1,243 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxSink;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process trigram index over item names and descriptions.
+ *
+ * <p>Every lower-cased trigram of an item's text maps to the ids of items containing it. A query
+ * intersects the postings of its own trigrams and then verifies candidates with a plain substring
+ * check, so results are exactly what {@code upper(name) like upper('%text%')} would return, without
+ * scanning the table. Matches are ranked (name before description, name prefix first) and only
+ * the requested page is loaded from the database, by primary key.
+ *
+ * <p>The index is filled once on startup and kept in sync after commit of
+ * {@link ItemServiceImpl#create}/{@link ItemServiceImpl#update}; changes made on other instances
+ * arrive through the outbox feed ({@link OutboxSink}) within the relay interval. The startup fill
+ * never replaces an entry written meanwhile, which is newer than its snapshot. Queries shorter
+ * than a trigram, or arriving before the index is ready, are not served
+ * ({@link #isReady}/{@link #supports}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex implements OutboxSink {
+
+    static final int GRAM = 3;
+    private static final int WARM_UP_BATCH = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByIdGreaterThanOrderById(lastId, PageRequest.ofSize(WARM_UP_BATCH));
+            for (Item item : batch) {
+                putIfAbsent(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+                lastId = item.getId();
+            }
+        } while (batch.size() == WARM_UP_BATCH);
+
+        ready = true;
+        log.info("Item search index ready: {} items, {} trigrams", documents.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean supports(String text) {
+        return text.length() >= GRAM;
+    }
+
+    /**
+     * Ids of available items matching the text, best matches first.
+     */
+    public List<Long> search(String text, int from, Integer size) {
+        List<Long> matches = rank(text);
+
+        int to = size == null ? matches.size() : (int) Math.min(matches.size(), (long) from + size);
+        if (from >= to) {
+            return List.of();
+        }
+        return matches.subList(from, to);
+    }
+
+    /**
+     * All matches of {@link #search}, unpaged: ids only, so callers can filter them further before paging.
+     */
+    public List<Long> rank(String text) {
+        String query = normalize(text);
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Scored> matches = new ArrayList<>();
+        for (Long id : lists.getFirst()) {
+            Document doc = documents.get(id);
+            if (doc == null || !doc.available()) {
+                continue;
+            }
+            int score = doc.score(query);
+            if (score > 0) {
+                matches.add(new Scored(id, score));
+            }
+        }
+        matches.sort(Comparator.comparingInt(Scored::score).reversed().thenComparing(Scored::id));
+
+        return matches.stream().map(Scored::id).toList();
+    }
+
+    /**
+     * Re-indexes the item once the current transaction commits.
+     */
+    public void indexOnCommit(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Boolean available = item.getAvailable();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(id, name, description, available);
+            }
+        });
+    }
+
+    /**
+     * Applies created and updated items from the feed, including this instance's own: an event
+     * can only be as new as the write that was applied after commit.
+     */
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        for (OutboxEventDto event : events) {
+            if (event.getType() != OutboxEvent.EventType.ITEM_CREATED
+                    && event.getType() != OutboxEvent.EventType.ITEM_UPDATED) {
+                continue;
+            }
+            ItemDto item = read(event);
+            if (item != null) {
+                put(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+            }
+        }
+    }
+
+    private synchronized void putIfAbsent(Long id, String name, String description, Boolean available) {
+        if (!documents.containsKey(id)) {
+            put(id, name, description, available);
+        }
+    }
+
+    private synchronized void put(Long id, String name, String description, Boolean available) {
+        Document doc = new Document(normalize(name), normalize(description), Boolean.TRUE.equals(available));
+        Document old = documents.put(id, doc);
+
+        Set<String> newGrams = doc.grams();
+        if (old != null) {
+            for (String gram : old.grams()) {
+                if (!newGrams.contains(gram)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+        for (String gram : newGrams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // битое событие пропускаем: повтор от OutboxRelay его не исправит
+    private ItemDto read(OutboxEventDto event) {
+        try {
+            ItemDto item = objectMapper.readValue(event.getPayload(), ItemDto.class);
+            if (item.getId() == null) {
+                log.warn("Skipping item event without item id at offset {}", event.getOffset());
+                return null;
+            }
+            return item;
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping malformed item event at offset {}", event.getOffset(), e);
+            return null;
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private record Document(String name, String description, boolean available) {
+
+        Set<String> grams() {
+            Set<String> result = ItemSearchIndex.grams(name);
+            result.addAll(ItemSearchIndex.grams(description));
+            return result;
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (name.contains(query)) {
+                score += name.startsWith(query) ? 3 : 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+
+    private record Scored(Long id, int score) {
+    }
+}
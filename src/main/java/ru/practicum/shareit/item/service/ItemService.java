@@ -2,18 +2,31 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(Long userId, ItemDto itemDto);
 
+    List<ItemDto> createBatch(Long userId, List<ItemDto> itemDtos);
+
+    ItemImportResultDto importItems(Long userId, InputStream ndjson);
+
+    void exportItems(Long userId, Consumer<ItemDto> consumer);
+
     ItemDto update(Long userId, Long itemId, ItemDto update);
 
     ItemDetailsDto getById(Long userId, Long itemId);
 
     List<ItemOwnerDto> getOwnerItems(Long userId);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, Integer size);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
 
     CommentDto addComment(Long userId, Long itemId, CommentCreateDto dto);
 }
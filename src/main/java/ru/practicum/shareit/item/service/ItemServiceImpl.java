@@ -1,11 +1,19 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.ResourceVersions;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -15,35 +23,206 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
-    private static final Sort COMMENTS_SORT = Sort.by(Sort.Direction.DESC, "created");
+    static final int IMPORT_CHUNK_SIZE = 500;
+    static final Duration MAX_AVAILABILITY_WINDOW = Duration.ofDays(366);
+    static final int FREE_CHECK_CHUNK = 500;
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository bookingHistoryRepository;
     private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ItemReadCache itemCache;
+    private final ResourceVersions versions;
+    private final OutboxService outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Override
     @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
-        var owner = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
+        var owner = userRepository.getReferenceById(userId);
+
+        ItemRequest request = null;
+        if (itemDto.getRequestId() != null) {
+            request = requestRepository.findById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException("Request not found: " + itemDto.getRequestId()));
+        }
 
-        var item = ItemMapper.toItem(itemDto, owner);
+        var item = ItemMapper.toItem(itemDto, owner, request);
         item = itemRepository.save(item);
+        searchIndex.indexOnCommit(item);
+        itemCache.evictOwnerItems(userId);
+        versions.bumpOnCommit(ResourceVersions.owner(userId));
 
-        return ItemMapper.toItemDto(item);
+        ItemDto result = ItemMapper.toItemDto(item);
+        outbox.append(OutboxEvent.AggregateType.ITEM, result.getId(), OutboxEvent.EventType.ITEM_CREATED, result);
+        return result;
+    }
+
+    /**
+     * Creates all items in one transaction. Ids come from the pooled sequence, so Hibernate sends
+     * the inserts as JDBC batches instead of one round trip per row.
+     */
+    @Override
+    @Transactional
+    public List<ItemDto> createBatch(Long userId, List<ItemDto> itemDtos) {
+        var owner = userRepository.getReferenceById(userId);
+
+        Map<Long, ItemRequest> requestsById = findRequests(itemDtos);
+        for (ItemDto dto : itemDtos) {
+            if (dto.getRequestId() != null && !requestsById.containsKey(dto.getRequestId())) {
+                throw new NotFoundException("Request not found: " + dto.getRequestId());
+            }
+        }
+
+        List<Item> items = itemDtos.stream()
+                .map(dto -> ItemMapper.toItem(dto, owner, requestsById.get(dto.getRequestId())))
+                .toList();
+        items = itemRepository.saveAll(items);
+        items.forEach(searchIndex::indexOnCommit);
+        itemCache.evictOwnerItems(userId);
+        versions.bumpOnCommit(ResourceVersions.owner(userId));
+
+        List<ItemDto> result = items.stream()
+                .map(ItemMapper::toItemDto)
+                .toList();
+        result.forEach(this::appendCreated);
+        return result;
+    }
+
+    /**
+     * Reads NDJSON with the streaming parser and inserts valid lines in chunks of
+     * {@link #IMPORT_CHUNK_SIZE}, each chunk in its own transaction, so memory use does not grow
+     * with the size of the upload. Invalid lines are reported and skipped; a line that is not
+     * valid JSON stops the import, chunks committed before it stay.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportResultDto importItems(Long userId, InputStream ndjson) {
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<ImportLine> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        try (JsonParser parser = objectMapper.createParser(ndjson)) {
+            while (true) {
+                long lineNr = parser.currentLocation().getLineNr();
+                ItemDto dto;
+                try {
+                    if (parser.nextToken() == null) {
+                        break;
+                    }
+                    lineNr = parser.currentTokenLocation().getLineNr();
+                    dto = parser.readValueAs(ItemDto.class);
+                } catch (JsonProcessingException e) {
+                    result.reject(lineNr, e.getOriginalMessage());
+                    break;
+                }
+
+                String error = validate(dto);
+                if (error != null) {
+                    result.reject(lineNr, error);
+                    continue;
+                }
+
+                chunk.add(new ImportLine(lineNr, dto));
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    importChunk(userId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(userId, chunk, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void exportItems(Long userId, Consumer<ItemDto> consumer) {
+        try (Stream<Item> items = itemRepository.streamByOwner(userId)) {
+            items.map(ItemMapper::toItemDto).forEach(consumer);
+        }
+    }
+
+    private void importChunk(Long userId, List<ImportLine> chunk, ItemImportResultDto result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var owner = userRepository.getReferenceById(userId);
+            Map<Long, ItemRequest> requestsById = findRequests(chunk.stream().map(ImportLine::dto).toList());
+
+            List<Item> items = new ArrayList<>(chunk.size());
+            for (ImportLine line : chunk) {
+                Long requestId = line.dto().getRequestId();
+                if (requestId != null && !requestsById.containsKey(requestId)) {
+                    result.reject(line.number(), "Request not found: " + requestId);
+                    continue;
+                }
+                items.add(ItemMapper.toItem(line.dto(), owner, requestsById.get(requestId)));
+            }
+
+            for (Item item : itemRepository.saveAll(items)) {
+                searchIndex.indexOnCommit(item);
+                appendCreated(ItemMapper.toItemDto(item));
+            }
+            itemCache.evictOwnerItems(userId);
+            versions.bumpOnCommit(ResourceVersions.owner(userId));
+            result.setImported(result.getImported() + items.size());
+        });
+    }
+
+    private void appendCreated(ItemDto item) {
+        outbox.append(OutboxEvent.AggregateType.ITEM, item.getId(), OutboxEvent.EventType.ITEM_CREATED, item);
+    }
+
+    private Map<Long, ItemRequest> findRequests(Collection<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private String validate(ItemDto dto) {
+        if (dto == null) {
+            return "Item must not be null";
+        }
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 
     @Override
@@ -61,29 +240,27 @@ public class ItemServiceImpl implements ItemService {
         if (update.getAvailable() != null) item.setAvailable(update.getAvailable());
 
         item = itemRepository.save(item);
-        return ItemMapper.toItemDto(item);
+        searchIndex.indexOnCommit(item);
+        itemCache.evictItem(itemId, userId);
+        // вещь входит в BookingDto, поэтому меняются и списки бронирований
+        versions.bumpOnCommit(ResourceVersions.item(itemId), ResourceVersions.owner(userId), ResourceVersions.ITEMS);
+
+        ItemDto result = ItemMapper.toItemDto(item);
+        outbox.append(OutboxEvent.AggregateType.ITEM, itemId, OutboxEvent.EventType.ITEM_UPDATED, result);
+        return result;
     }
 
     @Override
     public ItemDetailsDto getById(Long userId, Long itemId) {
-
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
-
-        var item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
-
-        var comments = commentRepository.findByItem_Id(itemId, COMMENTS_SORT)
-                .stream()
-                .map(CommentMapper::toDto)
-                .toList();
+        var item = itemCache.getItem(itemId);
+        var comments = itemCache.getComments(List.of(itemId)).get(itemId);
 
         var dto = ItemMapper.toDetailsDto(item, comments);
 
-        if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
-            List<Booking> bookings = bookingRepository.findByItem_IdAndStatus(itemId, Booking.BookingStatus.APPROVED);
-            fillLastNext(dto, bookings, now);
+        if (item.getOwnerId().equals(userId)) {
+            var bookings = itemCache.getBookings(List.of(itemId), LocalDateTime.now()).get(itemId);
+            dto.setLastBooking(bookings.last());
+            dto.setNextBooking(bookings.next());
         }
 
         return dto;
@@ -91,37 +268,23 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemOwnerDto> getOwnerItems(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
-
-        List<Item> items = itemRepository.findByOwner_Id(userId);
+        List<ItemDto> items = itemCache.getOwnerItems(userId);
         if (items.isEmpty()) {
             return List.of();
         }
 
-        List<Long> itemIds = items.stream().map(Item::getId).toList();
-
-        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findByItem_IdIn(itemIds, COMMENTS_SORT)
-                .stream()
-                .collect(Collectors.groupingBy(
-                        c -> c.getItem().getId(),
-                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())
-                ));
+        List<Long> itemIds = items.stream().map(ItemDto::getId).toList();
 
-        Map<Long, List<Booking>> bookingsByItemId = bookingRepository
-                .findByItem_IdInAndStatus(itemIds, Booking.BookingStatus.APPROVED)
-                .stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-
-        LocalDateTime now = LocalDateTime.now();
+        var commentsByItemId = itemCache.getComments(itemIds);
+        var bookingsByItemId = itemCache.getBookings(itemIds, LocalDateTime.now());
 
         List<ItemOwnerDto> result = new ArrayList<>(items.size());
-        for (Item item : items) {
-            List<CommentDto> comments = commentsByItemId.getOrDefault(item.getId(), List.of());
-            ItemOwnerDto dto = ItemMapper.toOwnerDto(item, comments);
+        for (ItemDto item : items) {
+            ItemOwnerDto dto = ItemMapper.toOwnerDto(item, commentsByItemId.get(item.getId()));
 
-            List<Booking> bookings = bookingsByItemId.getOrDefault(item.getId(), List.of());
-            fillLastNext(dto, bookings, now);
+            var bookings = bookingsByItemId.get(item.getId());
+            dto.setLastBooking(bookings.last());
+            dto.setNextBooking(bookings.next());
 
             result.add(dto);
         }
@@ -130,16 +293,94 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, Integer size) {
         if (text == null || text.isBlank()) {
             return List.of();
         }
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Both start and end must be set");
+        }
+        if (start != null && !end.isAfter(start)) {
+            throw new ValidationException("Invalid time: end must be after start");
+        }
 
-        return itemRepository.search(text).stream()
+        if (!searchIndex.isReady() || !searchIndex.supports(text)) {
+            return itemRepository.search(text, start, end, from, size).stream()
+                    .map(ItemMapper::toItemDto)
+                    .toList();
+        }
+
+        List<Long> ids = start == null
+                ? searchIndex.search(text, from, size)
+                : freePage(searchIndex.rank(text), start, end, from, size);
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        // порядок релевантности задаёт индекс, из базы только догружаем найденные; индекс может отставать
+        // от изменений на других экземплярах, поэтому загруженные строки проверяем ещё раз
+        String query = text.toLowerCase(Locale.ROOT);
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(item -> item != null && matches(item, query))
                 .map(ItemMapper::toItemDto)
                 .toList();
     }
 
+    private static boolean matches(Item item, String query) {
+        return Boolean.TRUE.equals(item.getAvailable())
+                && (item.getName().toLowerCase(Locale.ROOT).contains(query)
+                || item.getDescription().toLowerCase(Locale.ROOT).contains(query));
+    }
+
+    /**
+     * Page of the ranked ids without items booked in [start, end). Candidates are checked in rank
+     * order, a chunk per query, and only until the page is filled.
+     */
+    private List<Long> freePage(List<Long> ranked, LocalDateTime start, LocalDateTime end, int from, Integer size) {
+        long limit = size == null ? Long.MAX_VALUE : (long) from + size;
+
+        List<Long> free = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && free.size() < limit; i += FREE_CHECK_CHUNK) {
+            List<Long> chunk = ranked.subList(i, Math.min(ranked.size(), i + FREE_CHECK_CHUNK));
+            Set<Long> busy = new HashSet<>(bookingRepository.findBusyItemIds(
+                    chunk, Booking.BookingStatus.APPROVED, start, end));
+            chunk.stream()
+                    .filter(id -> !busy.contains(id))
+                    .limit(limit - free.size())
+                    .forEach(free::add);
+        }
+        return from >= free.size() ? List.of() : free.subList(from, free.size());
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return getAvailability(List.of(itemId), from, to).getFirst();
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new ValidationException("Invalid window: to must be after from");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_WINDOW) > 0) {
+            throw new ValidationException("Window is longer than " + MAX_AVAILABILITY_WINDOW.toDays() + " days");
+        }
+
+        List<Long> ids = itemIds.stream().distinct().toList();
+        // 404 для несуществующих: один запрос на все id, а не по одному на вещь
+        Set<Long> existing = new HashSet<>(itemRepository.findExistingIds(ids));
+        List<Long> missing = ids.stream().filter(id -> !existing.contains(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("Item not found: " + missing.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        return availabilityIndex.free(ids, from, to).entrySet().stream()
+                .map(e -> new ItemAvailabilityDto(e.getKey(), from, to, e.getValue()))
+                .toList();
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentCreateDto dto) {
@@ -149,8 +390,12 @@ public class ItemServiceImpl implements ItemService {
         var item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found: " + itemId));
 
+        // в архиве только давно закончившиеся бронирования, туда идём, если в живой таблице не нашли
+        LocalDateTime now = LocalDateTime.now();
         boolean canComment = bookingRepository.existsByBooker_IdAndItem_IdAndEndIsBeforeAndStatus(
-                userId, itemId, LocalDateTime.now(), Booking.BookingStatus.APPROVED);
+                userId, itemId, now, Booking.BookingStatus.APPROVED)
+                || bookingHistoryRepository.existsByBooker_IdAndItem_IdAndEndIsBeforeAndStatus(
+                userId, itemId, now, Booking.BookingStatus.APPROVED);
 
         if (!canComment) {
             throw new ValidationException("User has not completed a booking for this item");
@@ -158,46 +403,14 @@ public class ItemServiceImpl implements ItemService {
 
         var comment = CommentMapper.toComment(dto, item, author);
         comment = commentRepository.save(comment);
+        itemCache.evictComments(itemId);
+        versions.bumpOnCommit(ResourceVersions.item(itemId), ResourceVersions.owner(item.getOwner().getId()));
 
-        return CommentMapper.toDto(comment);
-    }
-
-    private void fillLastNext(ItemOwnerDto dto, List<Booking> bookings, LocalDateTime now) {
-        fillLastNextInternal(bookings, now, (last, next) -> {
-            dto.setLastBooking(last);
-            dto.setNextBooking(next);
-        });
-    }
-
-    private void fillLastNext(ItemDetailsDto dto, List<Booking> bookings, LocalDateTime now) {
-        fillLastNextInternal(bookings, now, (last, next) -> {
-            dto.setLastBooking(last);
-            dto.setNextBooking(next);
-        });
+        CommentDto result = CommentMapper.toDto(comment);
+        outbox.append(OutboxEvent.AggregateType.ITEM, itemId, OutboxEvent.EventType.COMMENT_ADDED, result);
+        return result;
     }
 
-    private void fillLastNextInternal(List<Booking> bookings,
-                                      LocalDateTime now,
-                                      BiConsumer<BookingShortDto, BookingShortDto> setter) {
-
-        Booking last = bookings.stream()
-                .filter(b -> !b.getEnd().isAfter(now)) // end <= now
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
-
-        Booking next = bookings.stream()
-                .filter(b -> b.getStart().isAfter(now)) // start > now
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
-
-        BookingShortDto lastDto = (last == null)
-                ? null
-                : new BookingShortDto(last.getId(), last.getBooker().getId());
-
-        BookingShortDto nextDto = (next == null)
-                ? null
-                : new BookingShortDto(next.getId(), next.getBooker().getId());
-
-        setter.accept(lastDto, nextDto);
+    private record ImportLine(long number, ItemDto dto) {
     }
 }
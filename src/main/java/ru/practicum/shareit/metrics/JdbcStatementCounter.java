@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts SQL statements prepared by Hibernate on the current thread between {@link #start} and
+ * {@link #stop}. Registered as Hibernate's statement inspector in {@link MetricsConfig}.
+ */
+@Component
+public class JdbcStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> counter = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        counter.set(new long[1]);
+    }
+
+    public long stop() {
+        long[] count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics, exported by actuator at {@code /actuator/prometheus}:
+ * <ul>
+ *     <li>{@value ServiceMetricsAspect#SERVICE_TIMER} - latency per service method;</li>
+ *     <li>{@value RepositoryMetricsAspect#REPOSITORY_ROWS} - rows returned per repository method;</li>
+ *     <li>{@value JdbcStatementMetricsFilter#REQUEST_STATEMENTS} - SQL statements per request;</li>
+ *     <li>{@code hikaricp.connections.acquire} - pool wait time (actuator's own Hikari binding,
+ *     histogram enabled in application.properties).</li>
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(JdbcStatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Records how many rows each repository method returned, as {@value #REPOSITORY_ROWS} tagged by
+ * repository and method. Streams are counted as they are consumed and recorded on close.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    public static final String REPOSITORY_ROWS = "shareit.repository.rows";
+
+    private final MeterRegistry registry;
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object countRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+
+        String repository = repositoryName(joinPoint.getThis());
+        String method = joinPoint.getSignature().getName();
+
+        if (result instanceof Stream<?> stream) {
+            LongAdder rows = new LongAdder();
+            return stream.peek(row -> rows.increment())
+                    .onClose(() -> summary(repository, method).record(rows.sum()));
+        }
+
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            return result; // count, exists, save...
+        }
+        summary(repository, method).record(rows);
+        return result;
+    }
+
+    private DistributionSummary summary(String repository, String method) {
+        return DistributionSummary.builder(REPOSITORY_ROWS)
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String repositoryName(Object proxy) {
+        return Arrays.stream(AopProxyUtils.proxiedUserInterfaces(proxy))
+                .filter(type -> type.getName().startsWith("ru.practicum.shareit")
+                        && type.getSimpleName().endsWith("Repository"))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse("unknown");
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.outbox.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.service.OutboxService;
+
+import java.util.List;
+
+/**
+ * Change feed of bookings and items for downstream systems: pages by offset, or a live SSE stream
+ * that resumes from {@code Last-Event-ID}. Payloads carry no contact data (a booking references its
+ * booker by id), so the feed is not tied to a user. Events are kept for
+ * {@code shareit.outbox.retention.period}.
+ */
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/events")
+public class OutboxController {
+    static final int MAX_LIMIT = 1000;
+
+    private final OutboxService service;
+
+    @GetMapping
+    public ResponseEntity<List<OutboxEventDto>> getEvents(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "100") @Positive @Max(MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(service.getEvents(after, limit));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(defaultValue = "0") @PositiveOrZero long after) {
+        return service.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
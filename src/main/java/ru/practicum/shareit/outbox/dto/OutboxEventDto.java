@@ -0,0 +1,27 @@
+package ru.practicum.shareit.outbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Feed entry. {@code offset} is gap-free and increasing: a consumer resumes with {@code after=<last offset>}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventDto {
+    private long offset;
+    private OutboxEvent.AggregateType aggregateType;
+    private Long aggregateId;
+    private OutboxEvent.EventType type;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.outbox.mapper;
+
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+public class OutboxEventMapper {
+
+    private OutboxEventMapper() {
+    }
+
+    public static OutboxEventDto toDto(OutboxEvent event) {
+        return OutboxEventDto.builder()
+                .offset(event.getEventOffset())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .type(event.getEventType())
+                .payload(event.getPayload())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
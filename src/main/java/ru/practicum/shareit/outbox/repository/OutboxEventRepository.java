@@ -0,0 +1,47 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Events not in the feed yet, in write order.
+     */
+    List<OutboxEvent> findByEventOffsetIsNullOrderById(Pageable pageable);
+
+    /**
+     * The feed after the given offset.
+     */
+    List<OutboxEvent> findByEventOffsetGreaterThanOrderByEventOffset(long after, Pageable pageable);
+
+    /**
+     * Events in the feed up to {@code offset} that were written before {@code before}, oldest first.
+     */
+    @Query("select e.id from OutboxEvent e where e.eventOffset <= :offset and e.createdAt < :before " +
+            "order by e.eventOffset")
+    List<Long> findRelayedIds(@Param("offset") long offset,
+                              @Param("before") LocalDateTime before,
+                              Pageable pageable);
+
+    /**
+     * Last offset given out; locks the relay row until the end of the transaction, so only one
+     * relay (of any instance) assigns offsets at a time.
+     */
+    @Query(value = "select last_offset from outbox_relay where id = 1 for update", nativeQuery = true)
+    long lockLastOffset();
+
+    @Modifying
+    @Query(value = "update outbox_relay set last_offset = :offset where id = 1", nativeQuery = true)
+    void saveLastOffset(@Param("offset") long offset);
+
+    @Query(value = "select last_offset from outbox_relay where id = 1", nativeQuery = true)
+    long findLastOffset();
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Appends the feed to a local NDJSON file, one event per line. The file is its own position:
+ * after a restart the relay continues from the offset of its last line.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("shareit.outbox.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${shareit.outbox.file.path}") Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEventDto event : events) {
+                out.write(objectMapper.writeValueAsString(event));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public OptionalLong position() {
+        if (!Files.exists(path)) {
+            return OptionalLong.of(0);
+        }
+
+        String last = null;
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (!line.isBlank()) {
+                    last = line;
+                }
+            }
+            return last == null ? OptionalLong.of(0)
+                    : OptionalLong.of(objectMapper.readTree(last).path("offset").asLong());
+        } catch (IOException e) {
+            log.warn("Cannot read outbox file {}, starting from the current feed head", path, e);
+            return OptionalLong.empty();
+        }
+    }
+}
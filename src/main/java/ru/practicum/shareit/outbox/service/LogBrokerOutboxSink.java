@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Local stand-in for a message broker: logs what would be sent, with the topic per aggregate type and
+ * the aggregate id as the message key. A real broker client replaces it as another {@link OutboxSink}
+ * and reports the broker's committed offset from {@link #position()}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.broker", havingValue = "log")
+public class LogBrokerOutboxSink implements OutboxSink {
+
+    static final String TOPIC_PREFIX = "shareit.";
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        for (OutboxEventDto event : events) {
+            log.info("topic={} key={} offset={} type={} payload={}",
+                    TOPIC_PREFIX + event.getAggregateType().name().toLowerCase(Locale.ROOT),
+                    event.getAggregateId(), event.getOffset(), event.getType(), event.getPayload());
+        }
+    }
+}
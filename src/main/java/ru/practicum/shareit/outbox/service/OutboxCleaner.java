@@ -0,0 +1,65 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes feed events older than {@code shareit.outbox.retention.period}, in batches, each batch in its
+ * own transaction. Only events every sink of this instance already has are deleted; external consumers
+ * of {@code GET /events} must resume within the retention period or they miss events.
+ */
+@Slf4j
+@Component
+public class OutboxCleaner {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final OutboxEventRepository repository;
+    private final OutboxRelay relay;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration period;
+
+    public OutboxCleaner(OutboxEventRepository repository,
+                         OutboxRelay relay,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${shareit.outbox.retention.period:7d}") Duration period) {
+        this.repository = repository;
+        this.relay = relay;
+        this.transactionTemplate = transactionTemplate;
+        this.period = period;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.retention.interval:PT1H}")
+    public void clean() {
+        long delivered = relay.deliveredOffset();
+        LocalDateTime before = LocalDateTime.now().minus(period);
+
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteBatch(delivered, before));
+            total += deleted;
+        } while (deleted == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Deleted {} outbox events written before {}", total, before);
+        }
+    }
+
+    private int deleteBatch(long delivered, LocalDateTime before) {
+        List<Long> ids = repository.findRelayedIds(delivered, before, PageRequest.ofSize(BATCH_SIZE));
+        if (!ids.isEmpty()) {
+            repository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+}
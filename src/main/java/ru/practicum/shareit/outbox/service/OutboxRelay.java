@@ -0,0 +1,111 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.mapper.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves committed outbox events into the feed and pushes the feed to the {@link OutboxSink}s.
+ *
+ * <p>Each run first gives offsets to new events, in batches, each batch in its own transaction under
+ * the {@code outbox_relay} row lock: offsets follow commit visibility rather than id order, so the
+ * feed has no gaps and an event never appears behind an offset a consumer has already read. Then
+ * every sink gets the feed after its position, batch by batch.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    static final int BATCH_SIZE = 500;
+
+    private final OutboxEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+
+    private final Map<OutboxSink, Long> positions = new ConcurrentHashMap<>();
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       TransactionTemplate transactionTemplate,
+                       List<OutboxSink> sinks) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-interval:PT1S}")
+    public void relay() {
+        // позиции берутся до первой выдачи offset, иначе события этого прохода не дошли бы до sink
+        initPositions();
+
+        int sequenced;
+        do {
+            sequenced = transactionTemplate.execute(status -> sequenceBatch());
+        } while (sequenced == BATCH_SIZE);
+
+        sinks.forEach(this::deliver);
+    }
+
+    /**
+     * Offset every sink of this instance has got.
+     */
+    long deliveredOffset() {
+        initPositions();
+        return positions.values().stream()
+                .mapToLong(Long::longValue)
+                .min()
+                .orElseGet(repository::findLastOffset);
+    }
+
+    private void initPositions() {
+        for (OutboxSink sink : sinks) {
+            positions.computeIfAbsent(sink, s -> s.position().orElseGet(repository::findLastOffset));
+        }
+    }
+
+    private int sequenceBatch() {
+        long offset = repository.lockLastOffset();
+        List<OutboxEvent> events = repository.findByEventOffsetIsNullOrderById(PageRequest.ofSize(BATCH_SIZE));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // изменённые события уйдут одним batch update при flush
+        for (OutboxEvent event : events) {
+            event.setEventOffset(++offset);
+        }
+        repository.saveLastOffset(offset);
+        return events.size();
+    }
+
+    private void deliver(OutboxSink sink) {
+        long position = positions.get(sink);
+
+        List<OutboxEvent> events;
+        do {
+            events = repository.findByEventOffsetGreaterThanOrderByEventOffset(position, PageRequest.ofSize(BATCH_SIZE));
+            if (events.isEmpty()) {
+                return;
+            }
+
+            List<OutboxEventDto> batch = events.stream().map(OutboxEventMapper::toDto).toList();
+            try {
+                sink.publish(batch);
+            } catch (RuntimeException e) {
+                log.warn("Outbox sink {} failed after offset {}, will retry", sink.getClass().getSimpleName(), position, e);
+                return;
+            }
+            position = batch.getLast().getOffset();
+            positions.put(sink, position);
+        } while (events.size() == BATCH_SIZE);
+    }
+}
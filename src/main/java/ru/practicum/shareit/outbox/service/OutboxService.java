@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxService {
+
+    /**
+     * Writes an event in the caller's transaction; there must be one.
+     */
+    void append(OutboxEvent.AggregateType aggregateType, Long aggregateId, OutboxEvent.EventType type, Object payload);
+
+    List<OutboxEventDto> getEvents(long after, int limit);
+
+    SseEmitter subscribe(long after);
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.mapper.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository repository;
+    private final SseOutboxSink sseSink;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEvent.AggregateType aggregateType,
+                       Long aggregateId,
+                       OutboxEvent.EventType type,
+                       Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload: " + type, e);
+        }
+
+        // offset появится, когда событие подхватит OutboxRelay
+        repository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(type)
+                .payload(json)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public List<OutboxEventDto> getEvents(long after, int limit) {
+        return repository.findByEventOffsetGreaterThanOrderByEventOffset(after, PageRequest.ofSize(limit))
+                .stream()
+                .map(OutboxEventMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public SseEmitter subscribe(long after) {
+        return sseSink.subscribe(after);
+    }
+}
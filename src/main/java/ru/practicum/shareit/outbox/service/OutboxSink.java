@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Destination of the event feed. {@link OutboxRelay} hands every sink the events after its own
+ * position, in offset order, and moves the position only when {@link #publish} returns normally,
+ * so a failing sink gets the same events again on the next run.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEventDto> events);
+
+    /**
+     * Offset of the last event the sink already has, if it keeps one; otherwise it starts with
+     * events relayed after application start.
+     */
+    default OptionalLong position() {
+        return OptionalLong.empty();
+    }
+}
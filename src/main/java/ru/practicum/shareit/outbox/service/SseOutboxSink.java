@@ -0,0 +1,154 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.mapper.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes the feed to Server-Sent Events subscribers. The SSE event id is the feed offset, so a client
+ * that reconnects with {@code Last-Event-ID} gets what it missed from the table and then live events.
+ *
+ * <p>Neither the request thread nor the relay writes to sockets: each subscriber has a bounded queue
+ * and its own virtual thread, which replays from the table and then drains the queue, skipping offsets
+ * already sent. The subscriber is registered before its replay starts, so nothing is lost in between.
+ * A subscriber whose queue fills up ({@code shareit.outbox.sse-queue-capacity}) is disconnected and
+ * resumes on reconnect. One connection replays at most {@link #MAX_REPLAY} events and is then
+ * completed; the client reconnects from the last id it got.
+ */
+@Slf4j
+@Component
+public class SseOutboxSink implements OutboxSink {
+
+    static final int MAX_REPLAY = 10_000;
+    private static final int REPLAY_BATCH = 500;
+
+    private final OutboxEventRepository repository;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public SseOutboxSink(OutboxEventRepository repository,
+                         @Value("${shareit.outbox.sse-timeout:30m}") Duration timeout,
+                         @Value("${shareit.outbox.sse-queue-capacity:1000}") int queueCapacity) {
+        this.repository = repository;
+        this.timeoutMillis = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+    }
+
+    public SseEmitter subscribe(long after) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), after);
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        subscribers.add(subscriber);
+        subscriber.sender.start();
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(events);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<OutboxEventDto> queue;
+        private final Thread sender;
+        private volatile boolean lagging;
+
+        // пишет только sender
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.sender = Thread.ofVirtual().name("outbox-stream").unstarted(this::run);
+        }
+
+        void offer(List<OutboxEventDto> events) {
+            for (OutboxEventDto event : events) {
+                if (!queue.offer(event)) {
+                    log.debug("Outbox subscriber is lagging, disconnecting");
+                    lagging = true;
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            sender.interrupt();
+        }
+
+        private void run() {
+            try {
+                if (!replay()) {
+                    emitter.complete();
+                    return;
+                }
+                while (true) {
+                    send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                // закрываем здесь, а не в offer: медленный send держит монитор emitter
+                if (lagging) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Outbox subscriber disconnected: {}", e.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        /**
+         * Sends what the table has after {@link #lastSent}; false if the replay limit was reached.
+         */
+        private boolean replay() throws IOException {
+            int replayed = 0;
+            List<OutboxEvent> events;
+            do {
+                events = repository.findByEventOffsetGreaterThanOrderByEventOffset(
+                        lastSent, PageRequest.ofSize(REPLAY_BATCH));
+                for (OutboxEvent event : events) {
+                    send(OutboxEventMapper.toDto(event));
+                }
+                replayed += events.size();
+            } while (events.size() == REPLAY_BATCH && replayed < MAX_REPLAY);
+
+            return events.size() < REPLAY_BATCH;
+        }
+
+        private void send(OutboxEventDto event) throws IOException {
+            if (event.getOffset() <= lastSent) {
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.getOffset()))
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON));
+            lastSent = event.getOffset();
+        }
+    }
+}
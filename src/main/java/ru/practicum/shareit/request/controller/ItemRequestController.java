@@ -1,15 +1,51 @@
 package ru.practicum.shareit.request.controller;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.controller.SharerUserId;
 
-/**
- * TODO Sprint add-item-requests.
- */
-@RequiredArgsConstructor
+import java.util.List;
+
+@Validated
 @RestController
+@RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
-}
+    private final ItemRequestService service;
 
+    @PostMapping
+    public ResponseEntity<ItemRequestDto> create(@SharerUserId Long userId,
+                                                 @Valid @RequestBody ItemRequestCreateDto dto) {
+        return ResponseEntity.ok(service.create(userId, dto));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestDto>> getOwnRequests(
+            @SharerUserId Long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size) {
+        return ResponseEntity.ok(service.getOwnRequests(userId, from, size));
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getOtherRequests(
+            @SharerUserId Long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size) {
+        return ResponseEntity.ok(service.getOtherRequests(userId, from, size));
+    }
+
+    @GetMapping("/{requestId}")
+    public ResponseEntity<ItemRequestDto> getById(@SharerUserId Long userId,
+                                                  @PathVariable Long requestId) {
+        return ResponseEntity.ok(service.getById(userId, requestId));
+    }
+}
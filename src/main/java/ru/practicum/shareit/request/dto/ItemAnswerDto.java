@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.*;
+
+/**
+ * Item created in response to a request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAnswerDto {
+    private Long id;
+    private String name;
+    private Long ownerId;
+}
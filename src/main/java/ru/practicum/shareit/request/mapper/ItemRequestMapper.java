@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItemRequestMapper {
+
+    private ItemRequestMapper() {
+    }
+
+    public static ItemRequest toItemRequest(ItemRequestCreateDto dto, User requestor) {
+        return ItemRequest.builder()
+                .description(dto.getDescription())
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    public static ItemRequestDto toDto(ItemRequest request, List<ItemAnswerDto> items) {
+        if (request == null) {
+            return null;
+        }
+
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemAnswerDto toAnswerDto(Item item) {
+        return ItemAnswerDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .ownerId(item.getOwner().getId())
+                .build();
+    }
+}
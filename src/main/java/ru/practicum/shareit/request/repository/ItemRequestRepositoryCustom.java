@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.repository;
+
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+public interface ItemRequestRepositoryCustom {
+
+    /**
+     * Requests of the user, newest first, skipping {@code from} rows and returning at most
+     * {@code size} rows (all when null).
+     */
+    List<ItemRequest> findOwn(Long requestorId, int from, Integer size);
+
+    /**
+     * Requests of everyone but the user, in the same order and paging as {@link #findOwn}.
+     */
+    List<ItemRequest> findOthers(Long userId, int from, Integer size);
+}
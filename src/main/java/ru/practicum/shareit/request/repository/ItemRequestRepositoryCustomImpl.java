@@ -0,0 +1,37 @@
+package ru.practicum.shareit.request.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+public class ItemRequestRepositoryCustomImpl implements ItemRequestRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ItemRequest> findOwn(Long requestorId, int from, Integer size) {
+        return findPage("r.requestor.id = :userId", requestorId, from, size);
+    }
+
+    @Override
+    public List<ItemRequest> findOthers(Long userId, int from, Integer size) {
+        return findPage("r.requestor.id <> :userId", userId, from, size);
+    }
+
+    private List<ItemRequest> findPage(String where, Long userId, int from, Integer size) {
+        // id - второй ключ: при равном created смещение не должно пропускать и повторять строки
+        TypedQuery<ItemRequest> query = entityManager.createQuery(
+                        "select r from ItemRequest r where " + where + " order by r.created desc, r.id desc",
+                        ItemRequest.class)
+                .setParameter("userId", userId);
+        query.setFirstResult(from);
+        if (size != null) {
+            query.setMaxResults(size);
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(Long userId, ItemRequestCreateDto dto);
+
+    List<ItemRequestDto> getOwnRequests(Long userId, int from, Integer size);
+
+    List<ItemRequestDto> getOtherRequests(Long userId, int from, Integer size);
+
+    ItemRequestDto getById(Long userId, Long requestId);
+}
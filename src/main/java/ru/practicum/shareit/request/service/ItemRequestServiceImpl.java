@@ -0,0 +1,74 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public ItemRequestDto create(Long userId, ItemRequestCreateDto dto) {
+        var request = ItemRequestMapper.toItemRequest(dto, userRepository.getReferenceById(userId));
+        request = requestRepository.save(request);
+
+        return ItemRequestMapper.toDto(request, List.of());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(Long userId, int from, Integer size) {
+        return withAnswers(requestRepository.findOwn(userId, from, size));
+    }
+
+    @Override
+    public List<ItemRequestDto> getOtherRequests(Long userId, int from, Integer size) {
+        return withAnswers(requestRepository.findOthers(userId, from, size));
+    }
+
+    @Override
+    public ItemRequestDto getById(Long userId, Long requestId) {
+        var request = requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found: " + requestId));
+
+        return withAnswers(List.of(request)).getFirst();
+    }
+
+    // ответы на всю страницу запросов — одним запросом по request_id in (...)
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemAnswerDto>> answersByRequestId = itemRepository.findByRequest_IdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        i -> i.getRequest().getId(),
+                        Collectors.mapping(ItemRequestMapper::toAnswerDto, Collectors.toList())
+                ));
+
+        return requests.stream()
+                .map(r -> ItemRequestMapper.toDto(r, answersByRequestId.getOrDefault(r.getId(), List.of())))
+                .toList();
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the {@value #HEADER} header to a {@code Long} parameter.
+ * With {@link #mustExist()} the user is also checked to exist (404 otherwise). This is the only
+ * existence check: services take the user id as already validated.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharerUserId {
+
+    String HEADER = "X-Sharer-User-Id";
+
+    boolean mustExist() default true;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+
+@Component
+@RequiredArgsConstructor
+public class SharerUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserExistenceCache userExistence;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(SharerUserId.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Long resolveArgument(MethodParameter parameter,
+                                ModelAndViewContainer mavContainer,
+                                NativeWebRequest webRequest,
+                                WebDataBinderFactory binderFactory) throws MissingRequestHeaderException {
+        String header = webRequest.getHeader(SharerUserId.HEADER);
+        if (header == null) {
+            throw new MissingRequestHeaderException(SharerUserId.HEADER, parameter);
+        }
+
+        Long userId;
+        try {
+            userId = Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid " + SharerUserId.HEADER + ": " + header);
+        }
+
+        if (parameter.getParameterAnnotation(SharerUserId.class).mustExist()) {
+            userExistence.requireExists(userId);
+        }
+        return userId;
+    }
+}
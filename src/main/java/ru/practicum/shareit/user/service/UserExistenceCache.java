@@ -0,0 +1,58 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring cache of "does user id exist" answers, so validating the
+ * {@code X-Sharer-User-Id} header does not load a {@code User} on every request.
+ * Misses fall back to {@link UserRepository#existsById}; entries are dropped after commit of
+ * {@link UserServiceImpl#create}/{@link UserServiceImpl#delete}.
+ */
+@Component
+public class UserExistenceCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.users.exists-cache.max-size:100000}") long maxSize,
+                              @Value("${shareit.users.exists-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean exists(Long userId) {
+        return cache.get(userId, userRepository::existsById);
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException("User not found: " + userId);
+        }
+    }
+
+    public void invalidateOnCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.ResourceVersions;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -17,6 +18,8 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final UserExistenceCache userExistence;
+    private final ResourceVersions versions;
 
     @Override
     @Transactional
@@ -27,6 +30,7 @@ public class UserServiceImpl implements UserService {
 
         var user = UserMapper.toUser(userDto);
         user = repository.save(user);
+        userExistence.invalidateOnCommit(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -47,6 +51,8 @@ public class UserServiceImpl implements UserService {
         }
 
         user = repository.save(user);
+        // имя и почта видны в комментариях и бронированиях
+        versions.bumpOnCommit(ResourceVersions.USERS);
         return UserMapper.toUserDto(user);
     }
 
@@ -68,5 +74,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(Long userId) {
         repository.deleteById(userId);
+        userExistence.invalidateOnCommit(userId);
+        versions.bumpOnCommit(ResourceVersions.USERS);
     }
 }
@@ -0,0 +1,32 @@
+-- ===============================
+-- OUTBOX
+-- ===============================
+-- события бронирований и вещей пишутся в той же транзакции, что и изменение (см. OutboxService.append);
+-- event_offset присваивает OutboxRelay уже закоммиченным событиям, т.е. в порядке видимости коммитов,
+-- а не id; по нему потребители продолжают чтение. Доставленные строки удаляет OutboxCleaner
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id             BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(32)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(64)                 NOT NULL,
+    payload        VARCHAR(65536)              NOT NULL,
+    created_at     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    event_offset   BIGINT
+);
+
+-- и выборка ещё не упорядоченных (event_offset is null), и чтение потребителями после offset
+CREATE INDEX IF NOT EXISTS idx_outbox_events_offset
+    ON outbox_events (event_offset, id);
+
+-- последний выданный offset; строка блокируется на время одного прохода OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_relay
+(
+    id          INT PRIMARY KEY,
+    last_offset BIGINT NOT NULL
+);
+
+INSERT INTO outbox_relay (id, last_offset)
+VALUES (1, 0);
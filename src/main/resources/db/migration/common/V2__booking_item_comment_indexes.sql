@@ -0,0 +1,27 @@
+-- ===============================
+-- BOOKINGS
+-- ===============================
+-- листинги букера: ALL/CURRENT/PAST/FUTURE, order by start desc, id desc (+ keyset)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start
+    ON bookings (booker_id, start_date DESC, id DESC);
+
+-- листинги букера: WAITING/REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start
+    ON bookings (booker_id, status, start_date DESC);
+
+-- проверка пересечений, last/next по вещам, "брал ли вещь" для комментариев,
+-- листинги владельца (join через items.owner_id)
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start_end
+    ON bookings (item_id, status, start_date, end_date);
+
+-- ===============================
+-- ITEMS
+-- ===============================
+CREATE INDEX IF NOT EXISTS idx_items_owner
+    ON items (owner_id);
+
+-- ===============================
+-- COMMENTS
+-- ===============================
+CREATE INDEX IF NOT EXISTS idx_comments_item_created
+    ON comments (item_id, created DESC);
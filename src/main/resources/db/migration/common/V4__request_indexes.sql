@@ -0,0 +1,17 @@
+-- ===============================
+-- REQUESTS
+-- ===============================
+-- свои запросы: requestor_id = ? order by created desc
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created
+    ON requests (requestor_id, created DESC);
+
+-- чужие запросы: requestor_id <> ? order by created desc (+ limit)
+CREATE INDEX IF NOT EXISTS idx_requests_created
+    ON requests (created DESC);
+
+-- ===============================
+-- ITEMS
+-- ===============================
+-- ответы на страницу запросов: request_id in (...)
+CREATE INDEX IF NOT EXISTS idx_items_request
+    ON items (request_id);
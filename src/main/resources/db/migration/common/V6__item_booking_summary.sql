@@ -0,0 +1,27 @@
+-- ===============================
+-- ITEM BOOKING SUMMARY
+-- ===============================
+-- последнее/следующее подтверждённое бронирование вещи, поддерживается ItemBookingSummaryService;
+-- valid_until - момент, когда пара устареет (начало следующего или конец текущего бронирования)
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start      TIMESTAMP WITHOUT TIME ZONE,
+    valid_until     TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT fk_item_booking_summary_item
+        FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+-- плановое обновление: valid_until <= now
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until
+    ON item_booking_summary (valid_until);
+
+-- уже существующие вещи с бронированиями заводим устаревшими, их пересчитает первый запуск обновления
+INSERT INTO item_booking_summary (item_id, valid_until)
+SELECT DISTINCT item_id, TIMESTAMP '1970-01-01 00:00:00'
+FROM bookings
+WHERE status = 'APPROVED';
@@ -0,0 +1,32 @@
+-- ===============================
+-- BOOKINGS ARCHIVE
+-- ===============================
+-- завершённые (не WAITING) бронирования старше горизонта, переносятся BookingArchiver;
+-- читаются через BookingHistory только для состояний, которым нужна история (ALL/PAST/REJECTED)
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    id         BIGINT PRIMARY KEY,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT      NOT NULL,
+    booker_id  BIGINT      NOT NULL,
+    status     VARCHAR(32) NOT NULL,
+    CONSTRAINT fk_bookings_archive_item
+        FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_archive_booker
+        FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+-- те же листинги и проверки, что и для bookings (см. V2)
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start
+    ON bookings_archive (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_status_start
+    ON bookings_archive (booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_start_end
+    ON bookings_archive (item_id, status, start_date, end_date);
+
+-- выборка кандидатов в архив: end_date < горизонт
+CREATE INDEX IF NOT EXISTS idx_bookings_end
+    ON bookings (end_date);
@@ -0,0 +1,6 @@
+-- ===============================
+-- BOOKINGS
+-- ===============================
+-- оптимистическая блокировка (@Version Booking.version)
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
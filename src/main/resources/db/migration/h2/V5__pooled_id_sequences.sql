@@ -0,0 +1,37 @@
+-- См. postgresql/V5: идентификаторы из последовательностей с шагом id_allocation_size.
+-- H2 используется только в тестах на пустой in-memory базе, поэтому последовательности начинаются с 1.
+
+-- ===============================
+-- USERS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+
+-- ===============================
+-- REQUESTS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR requests_seq;
+
+-- ===============================
+-- ITEMS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+
+-- ===============================
+-- BOOKINGS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
+
+-- ===============================
+-- COMMENTS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
@@ -0,0 +1,3 @@
+-- findByEmailIgnoreCase генерирует upper(email) = upper(?)
+CREATE INDEX IF NOT EXISTS idx_users_email_upper
+    ON users (upper(email));
@@ -0,0 +1,49 @@
+-- Идентификаторы выдаются пулами из последовательностей (hibernate pooled-lo): сущность получает
+-- id без отдельного INSERT ... RETURNING, и Hibernate может отправлять вставки JDBC-батчами.
+-- Шаг последовательности = allocationSize, задаётся плейсхолдером id_allocation_size.
+-- DEFAULT nextval оставлен для вставок в обход Hibernate (скрипты, генератор данных в benchmarks).
+
+-- ===============================
+-- USERS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+-- ===============================
+-- REQUESTS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 1, false);
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq OWNED BY requests.id;
+
+-- ===============================
+-- ITEMS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1, false);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+
+-- ===============================
+-- BOOKINGS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+-- ===============================
+-- COMMENTS
+-- ===============================
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY ${id_allocation_size};
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, false);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
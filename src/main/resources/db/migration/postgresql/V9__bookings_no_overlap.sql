@@ -0,0 +1,63 @@
+-- Подтверждённые бронирования одной вещи не пересекаются - гарантия на уровне базы, поверх
+-- проверки в BookingServiceImpl (она работает в пределах одного экземпляра приложения).
+-- tsrange по умолчанию [start, end): касающиеся интервалы пересечением не считаются, как и в коде.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Прежняя проверка пересечений не была атомарной, поэтому пересекающиеся подтверждённые бронирования
+-- уже могут быть в таблице, и ограничение на них не создалось бы. Разрешаем их так, как решила бы
+-- последовательная проверка: в порядке id бронирование, пересекающееся с оставшимся подтверждённым,
+-- отклоняется. Найти такие заранее:
+--   select a.id, b.id, a.item_id from bookings a join bookings b on b.item_id = a.item_id and b.id > a.id
+--   where a.status = 'APPROVED' and b.status = 'APPROVED'
+--     and a.start_date < b.end_date and b.start_date < a.end_date;
+DO
+$$
+    DECLARE
+        conflicting RECORD;
+        rejected    BIGINT[] := '{}';
+    BEGIN
+        FOR conflicting IN
+            SELECT b.id
+            FROM bookings b
+            WHERE b.status = 'APPROVED'
+              AND EXISTS (SELECT 1
+                          FROM bookings a
+                          WHERE a.item_id = b.item_id
+                            AND a.id < b.id
+                            AND a.status = 'APPROVED'
+                            AND a.start_date < b.end_date
+                            AND b.start_date < a.end_date)
+            ORDER BY b.id
+            LOOP
+                -- более ранние уже окончательны: сверяемся только с оставшимися подтверждёнными
+                UPDATE bookings b
+                SET status  = 'REJECTED',
+                    version = version + 1
+                WHERE b.id = conflicting.id
+                  AND EXISTS (SELECT 1
+                              FROM bookings a
+                              WHERE a.item_id = b.item_id
+                                AND a.id < b.id
+                                AND a.status = 'APPROVED'
+                                AND a.start_date < b.end_date
+                                AND b.start_date < a.end_date);
+                IF FOUND THEN
+                    rejected := rejected || conflicting.id;
+                END IF;
+            END LOOP;
+
+        IF cardinality(rejected) > 0 THEN
+            -- сводки этих вещей могли ссылаться на отклонённые, их пересчитает обновление
+            UPDATE item_booking_summary
+            SET valid_until = TIMESTAMP '1970-01-01 00:00:00'
+            WHERE item_id IN (SELECT item_id FROM bookings WHERE id = ANY (rejected));
+
+            RAISE WARNING 'Rejected % approved bookings overlapping earlier ones: %', cardinality(rejected), rejected;
+        END IF;
+    END
+$$;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_approved_no_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status = 'APPROVED');
@@ -0,0 +1,224 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingEdgeView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bookings moved to {@code bookings_archive} stay visible wherever finished bookings are: listings of
+ * ALL and PAST (offset and keyset pages), lookup by id, comment eligibility and the last booking of an item.
+ * Concurrent archivers do not pick the same bookings.
+ */
+@SpringBootTest(properties = "shareit.bookings.archive.interval=PT1H")
+class BookingArchiveTests {
+
+	@Autowired
+	private BookingArchiver archiver;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private User owner;
+	private User booker;
+	private Item archivedItem;
+	private Booking future;
+	private Booking recent;
+	private Booking archivedRejected;
+	private Booking oldWaiting;
+	private Booking archivedApproved;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		Item item = item();
+		// у этой вещи единственное завершённое бронирование уйдёт в архив
+		archivedItem = item();
+
+		LocalDateTime now = LocalDateTime.now();
+		future = booking(item, now.plusDays(1), Booking.BookingStatus.APPROVED);
+		recent = booking(item, now.minusDays(10), Booking.BookingStatus.APPROVED);
+		archivedRejected = booking(item, now.minusDays(150), Booking.BookingStatus.REJECTED);
+		oldWaiting = booking(item, now.minusDays(180), Booking.BookingStatus.WAITING);
+		archivedApproved = booking(archivedItem, now.minusDays(200), Booking.BookingStatus.APPROVED);
+
+		archiver.archive();
+	}
+
+	@Test
+	void archivesOnlyDecidedBookingsPastTheHorizon() {
+		assertFalse(bookingRepository.existsById(archivedApproved.getId()));
+		assertFalse(bookingRepository.existsById(archivedRejected.getId()));
+		assertTrue(bookingRepository.existsById(oldWaiting.getId()));
+		assertTrue(bookingRepository.existsById(recent.getId()));
+		assertTrue(bookingRepository.existsById(future.getId()));
+	}
+
+	@Test
+	void listingsIncludeArchivedBookings() {
+		List<Long> all = ids(future, recent, archivedRejected, oldWaiting, archivedApproved);
+		List<Long> past = ids(recent, archivedRejected, oldWaiting, archivedApproved);
+
+		assertEquals(all, ids(bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, 0, null)));
+		assertEquals(past, ids(bookingService.getUserBookings(booker.getId(), BookingState.PAST, null, 0, null)));
+		assertEquals(all, ids(bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, null, 0, null)));
+		assertEquals(past, ids(bookingService.getOwnerBookings(owner.getId(), BookingState.PAST, null, 0, null)));
+		assertEquals(ids(archivedRejected, oldWaiting),
+				ids(bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, 2, 2)));
+	}
+
+	@Test
+	void keysetPagesCrossIntoArchive() {
+		List<Long> pages = new ArrayList<>();
+		BookingCursor cursor = null;
+		List<BookingDto> page;
+		do {
+			page = bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, cursor, 0, 2);
+			pages.addAll(ids(page));
+			cursor = page.isEmpty() ? null : BookingCursor.of(page.getLast());
+		} while (page.size() == 2);
+
+		assertEquals(ids(future, recent, archivedRejected, oldWaiting, archivedApproved), pages);
+	}
+
+	@Test
+	void archivedBookingFoundById() {
+		BookingDto found = bookingService.getById(booker.getId(), archivedApproved.getId());
+
+		assertEquals(archivedApproved.getId(), found.getId());
+		assertEquals(Booking.BookingStatus.APPROVED, found.getStatus());
+		assertEquals(archivedItem.getId(), found.getItem().getId());
+	}
+
+	@Test
+	void archivedBookingAllowsComment() {
+		CommentCreateDto dto = new CommentCreateDto();
+		dto.setText("good");
+
+		assertEquals("good", itemService.addComment(booker.getId(), archivedItem.getId(), dto).getText());
+	}
+
+	@Test
+	void archivedBookingIsLastBooking() {
+		List<BookingEdgeView> edges = bookingRepository.findLastAndNext(List.of(archivedItem.getId()), LocalDateTime.now());
+
+		assertEquals(1, edges.size());
+		assertEquals(BookingEdgeView.LAST, edges.getFirst().getKind());
+		assertEquals(archivedApproved.getId(), edges.getFirst().getId());
+	}
+
+	@Test
+	void concurrentArchiversTakeDisjointBatches() throws Exception {
+		// раньше остальных данных теста, чтобы в выборку попали только эти два
+		LocalDateTime longAgo = LocalDateTime.of(1900, 1, 1, 0, 0);
+		booking(archivedItem, longAgo, Booking.BookingStatus.APPROVED);
+		booking(archivedItem, longAgo.plusDays(1), Booking.BookingStatus.APPROVED);
+		LocalDateTime before = longAgo.plusDays(2);
+
+		CountDownLatch selected = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(s -> {
+			List<Long> ids = archivable(before);
+			selected.countDown();
+			await(release);
+			return ids;
+		}));
+		await(selected);
+
+		List<Long> second;
+		try {
+			second = transactionTemplate.execute(s -> archivable(before));
+		} finally {
+			release.countDown();
+		}
+
+		// второй не ждёт первого и не берёт его строки; PostgreSQL отдал бы следующую строку, H2 применяет
+		// limit до пропуска заблокированных и возвращает пустую пачку
+		List<Long> firstIds = first.get(10, TimeUnit.SECONDS);
+		assertEquals(1, firstIds.size());
+		assertFalse(second.contains(firstIds.getFirst()));
+	}
+
+	private List<Long> archivable(LocalDateTime before) {
+		return bookingRepository.findArchivableIds(before, 1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Item item() {
+		return itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+	}
+
+	private Booking booking(Item item, LocalDateTime start, Booking.BookingStatus status) {
+		return bookingRepository.save(Booking.builder()
+				.item(item)
+				.booker(booker)
+				.start(start)
+				.end(start.plusHours(1))
+				.status(status)
+				.build());
+	}
+
+	private static List<Long> ids(Booking... bookings) {
+		return Arrays.stream(bookings).map(Booking::getId).toList();
+	}
+
+	private static List<Long> ids(List<BookingDto> bookings) {
+		return bookings.stream().map(BookingDto::getId).toList();
+	}
+}
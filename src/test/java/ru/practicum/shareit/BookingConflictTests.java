@@ -0,0 +1,80 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An approval rejected by a database constraint (on PostgreSQL the {@code bookings_approved_no_overlap}
+ * exclusion constraint of V9) answers 409 and leaves the booking waiting.
+ *
+ * <p>The suite runs on H2, which has no exclusion constraints, so the violation is raised by a spy
+ * in place of the database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingConflictTests {
+
+	private static final String HEADER_USER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@SpyBean
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Test
+	void constraintViolationOnApprovalIsConflict() throws Exception {
+		User owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		User booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		Item item = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+		Booking booking = bookingRepository.save(Booking.builder()
+				.item(item)
+				.booker(booker)
+				.start(LocalDateTime.now().plusDays(1))
+				.end(LocalDateTime.now().plusDays(2))
+				.status(Booking.BookingStatus.WAITING)
+				.build());
+		doThrow(new DataIntegrityViolationException("bookings_approved_no_overlap"))
+				.when(bookingRepository).updateStatus(eq(booking.getId()), any(), eq(Booking.BookingStatus.APPROVED));
+
+		mvc.perform(patch("/bookings/" + booking.getId())
+						.header(HEADER_USER, owner.getId())
+						.param("approved", "true"))
+				.andExpect(status().isConflict());
+
+		assertEquals(Booking.BookingStatus.WAITING,
+				bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+	}
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * {@code GET /bookings/stream}: a booking change reaches the booker and the item owner, once the outbox
+ * relay has picked it up, and nobody else.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingStreamTests {
+
+	private static final String HEADER_USER = "X-Sharer-User-Id";
+	private static final long WAIT_MILLIS = 10_000;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	private User owner;
+	private User booker;
+	private User stranger;
+	private Item item;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		stranger = userRepository.save(User.builder().name("stranger").email(UUID.randomUUID() + "@mail.ru").build());
+		item = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+	}
+
+	@Test
+	void bookingChangesReachBookerAndOwnerOnly() throws Exception {
+		MockHttpServletResponse bookerStream = subscribe(booker);
+		MockHttpServletResponse ownerStream = subscribe(owner);
+		MockHttpServletResponse strangerStream = subscribe(stranger);
+
+		BookingCreateDto dto = new BookingCreateDto();
+		dto.setItemId(item.getId());
+		dto.setStart(LocalDateTime.now().plusDays(1));
+		dto.setEnd(LocalDateTime.now().plusDays(2));
+		BookingDto created = bookingService.create(booker.getId(), dto);
+		bookingService.approve(owner.getId(), created.getId(), true);
+
+		assertTrue(await(bookerStream, "event:BOOKING_APPROVED"));
+		assertTrue(await(ownerStream, "event:BOOKING_APPROVED"));
+
+		String bookerEvents = bookerStream.getContentAsString();
+		assertTrue(bookerEvents.contains("event:BOOKING_CREATED"));
+		assertTrue(bookerEvents.indexOf("event:BOOKING_CREATED") < bookerEvents.indexOf("event:BOOKING_APPROVED"));
+		assertTrue(bookerEvents.contains("\"id\":" + created.getId()));
+		assertFalse(strangerStream.getContentAsString().contains("event:"));
+	}
+
+	private MockHttpServletResponse subscribe(User user) throws Exception {
+		return mvc.perform(get("/bookings/stream").header(HEADER_USER, user.getId()))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+	}
+
+	/**
+	 * Waits for the relay run and the subscriber's sender thread.
+	 */
+	private static boolean await(MockHttpServletResponse stream, String text) throws Exception {
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (System.currentTimeMillis() < deadline) {
+			if (stream.getContentAsString().contains(text)) {
+				return true;
+			}
+			Thread.sleep(50);
+		}
+		return false;
+	}
+}
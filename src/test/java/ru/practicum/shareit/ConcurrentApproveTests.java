@@ -0,0 +1,160 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent approvals of one item: whatever the interleaving, approved bookings never overlap
+ * and every booking is decided exactly once.
+ */
+@SpringBootTest
+class ConcurrentApproveTests {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	private User owner;
+	private User booker;
+	private Item item;
+	private LocalDateTime start;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		item = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+		start = LocalDateTime.now().plusDays(1);
+	}
+
+	@Test
+	void overlappingBookingsApprovedOnce() throws Exception {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			// все интервалы пересекаются между собой
+			bookings.add(waiting(start.plusHours(i), start.plusHours(i + THREADS)));
+		}
+
+		int approved = race(i -> () -> bookingService.approve(owner.getId(), bookings.get(i).getId(), true));
+
+		assertEquals(1, approved);
+		assertEquals(1, countApproved());
+	}
+
+	@Test
+	void overlappingDecisionsOfOneBatchApprovedOnce() {
+		Booking first = waiting(start, start.plusHours(2));
+		Booking second = waiting(start.plusHours(1), start.plusHours(3));
+		Booking touching = waiting(start.plusHours(2), start.plusHours(4));
+
+		List<BookingBatchResultDto> results = bookingService.approveBatch(owner.getId(), List.of(
+				new BookingDecisionDto(first.getId(), true),
+				new BookingDecisionDto(second.getId(), true),
+				new BookingDecisionDto(touching.getId(), true)));
+
+		assertEquals(List.of(200, 400, 200), results.stream().map(BookingBatchResultDto::getStatus).toList());
+		assertEquals(2, countApproved());
+		assertEquals(Booking.BookingStatus.WAITING,
+				bookingRepository.findById(second.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void sameBookingDecidedOnce() throws Exception {
+		Booking booking = waiting(start, start.plusHours(1));
+
+		int decided = race(i -> () -> bookingService.approve(owner.getId(), booking.getId(), i % 2 == 0));
+
+		assertEquals(1, decided);
+		Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+		assertEquals(1L, stored.getVersion());
+	}
+
+	private Booking waiting(LocalDateTime from, LocalDateTime to) {
+		return bookingRepository.save(Booking.builder()
+				.item(item)
+				.booker(booker)
+				.start(from)
+				.end(to)
+				.status(Booking.BookingStatus.WAITING)
+				.build());
+	}
+
+	private long countApproved() {
+		return bookingRepository.findByItem_IdAndStatusAndEndIsAfter(
+				item.getId(), Booking.BookingStatus.APPROVED, LocalDateTime.now()).size();
+	}
+
+	/**
+	 * Starts all tasks at once and returns how many succeeded; the rest must fail with a validation error.
+	 */
+	private int race(IntFunction<Runnable> task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch go = new CountDownLatch(1);
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				Runnable action = task.apply(i);
+				results.add(executor.submit(() -> {
+					go.await();
+					try {
+						action.run();
+						return true;
+					} catch (ValidationException e) {
+						return false;
+					}
+				}));
+			}
+			go.countDown();
+
+			int succeeded = 0;
+			for (Future<Boolean> result : results) {
+				if (result.get()) {
+					succeeded++;
+				}
+			}
+			return succeeded;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
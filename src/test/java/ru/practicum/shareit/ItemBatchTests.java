@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk item creation ignores client-supplied ids: it only ever inserts new rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemBatchTests {
+
+	private static final String HEADER_USER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Test
+	void batchWithForeignIdsCreatesNewItems() throws Exception {
+		User victim = user("victim");
+		User attacker = user("attacker");
+		Item foreign = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(victim)
+				.build());
+
+		mvc.perform(post("/items/batch")
+						.header(HEADER_USER, attacker.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"id\":" + foreign.getId() + ",\"name\":\"mine\",\"description\":\"mine\",\"available\":true}]"))
+				.andExpect(status().isOk());
+
+		assertForeignUntouched(foreign, victim);
+		List<Item> created = itemRepository.findByOwner_Id(attacker.getId());
+		assertEquals(1, created.size());
+		assertNotEquals(foreign.getId(), created.getFirst().getId());
+	}
+
+	@Test
+	void importWithForeignIdsCreatesNewItems() throws Exception {
+		User victim = user("victim");
+		User attacker = user("attacker");
+		Item foreign = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(victim)
+				.build());
+
+		mvc.perform(post("/items/import")
+						.header(HEADER_USER, attacker.getId())
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content("{\"id\":" + foreign.getId() + ",\"name\":\"mine\",\"description\":\"mine\",\"available\":true}\n"))
+				.andExpect(status().isOk());
+
+		assertForeignUntouched(foreign, victim);
+		assertEquals(1, itemRepository.findByOwner_Id(attacker.getId()).size());
+	}
+
+	private void assertForeignUntouched(Item foreign, User victim) {
+		Item stored = itemRepository.findById(foreign.getId()).orElseThrow();
+		assertEquals("drill", stored.getName());
+		assertEquals(victim.getId(), stored.getOwner().getId());
+	}
+
+	private User user(String name) {
+		return userRepository.save(User.builder().name(name).email(UUID.randomUUID() + "@mail.ru").build());
+	}
+}
@@ -0,0 +1,174 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Last/next booking read model: kept up to date by approvals, recomputed on read once stale and
+ * rewritten by the refresh. Writers of one item's summary are serialized by a database lock.
+ *
+ * <p>The scheduled refresh is pushed out, the tests run it explicitly.
+ */
+@SpringBootTest(properties = "shareit.booking-summary.refresh-interval=PT1H")
+class ItemBookingSummaryTests {
+
+	@Autowired
+	private ItemBookingSummaryService summaryService;
+
+	@Autowired
+	private ItemBookingSummaryRepository summaryRepository;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private User owner;
+	private User booker;
+	private Item item;
+	private LocalDateTime now;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		item = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+		now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+	}
+
+	@Test
+	void approvalBecomesNextBooking() {
+		Booking later = booking(now.plusDays(2), now.plusDays(3), Booking.BookingStatus.WAITING);
+		Booking sooner = booking(now.plusDays(1), now.plusDays(1).plusHours(1), Booking.BookingStatus.WAITING);
+
+		bookingService.approve(owner.getId(), later.getId(), true);
+		assertEquals(later.getId(), stored().getNextBookingId());
+
+		bookingService.approve(owner.getId(), sooner.getId(), true);
+		ItemBookingSummary summary = stored();
+		assertEquals(sooner.getId(), summary.getNextBookingId());
+		assertEquals(booker.getId(), summary.getNextBookerId());
+		assertEquals(sooner.getStart(), summary.getValidUntil());
+	}
+
+	@Test
+	void staleSummaryIsRecomputedOnRead() {
+		Booking finished = booking(now.minusDays(2), now.minusDays(1), Booking.BookingStatus.APPROVED);
+		Booking upcoming = booking(now.plusDays(1), now.plusDays(2), Booking.BookingStatus.APPROVED);
+		saveStale();
+
+		ItemBookingSummary summary = summaryService.load(List.of(item.getId()), LocalDateTime.now()).get(item.getId());
+
+		assertEquals(finished.getId(), summary.getLastBookingId());
+		assertEquals(upcoming.getId(), summary.getNextBookingId());
+		// чтение не пишет, строку перепишет обновление
+		assertNull(stored().getNextBookingId());
+	}
+
+	@Test
+	void refreshRewritesStaleSummaries() {
+		Booking finished = booking(now.minusDays(2), now.minusDays(1), Booking.BookingStatus.APPROVED);
+		Booking upcoming = booking(now.plusDays(1), now.plusDays(2), Booking.BookingStatus.APPROVED);
+		saveStale();
+
+		summaryService.refreshStale();
+
+		ItemBookingSummary summary = stored();
+		assertEquals(finished.getId(), summary.getLastBookingId());
+		assertEquals(upcoming.getId(), summary.getNextBookingId());
+		assertEquals(upcoming.getStart(), summary.getValidUntil());
+	}
+
+	@Test
+	void summaryWritersOfOneItemWaitForEachOther() throws Exception {
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// как подтверждение на другом экземпляре: блокировка держится до коммита
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+			summaryService.lockItems(List.of(item.getId()));
+			locked.countDown();
+			await(release);
+		}));
+		assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+		CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s ->
+				summaryService.lockItems(List.of(item.getId()))));
+		Thread.sleep(300);
+		assertFalse(second.isDone());
+
+		release.countDown();
+		first.get(10, TimeUnit.SECONDS);
+		second.get(10, TimeUnit.SECONDS);
+	}
+
+	private Booking booking(LocalDateTime start, LocalDateTime end, Booking.BookingStatus status) {
+		return bookingRepository.save(Booking.builder()
+				.item(item)
+				.booker(booker)
+				.start(start)
+				.end(end)
+				.status(status)
+				.build());
+	}
+
+	private void saveStale() {
+		summaryRepository.save(ItemBookingSummary.builder()
+				.itemId(item.getId())
+				.validUntil(now.minusDays(3))
+				.build());
+	}
+
+	private ItemBookingSummary stored() {
+		return summaryRepository.findById(item.getId()).orElseThrow();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
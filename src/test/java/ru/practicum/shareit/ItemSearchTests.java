@@ -0,0 +1,169 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code GET /items/search} over the trigram index: results are checked against the rows loaded
+ * from the database. Searches with a free window give the same answer over the index and over the
+ * database query used while the index is not ready.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemSearchTests {
+
+	// ItemServiceImpl.FREE_CHECK_CHUNK
+	private static final int FREE_CHECK_CHUNK = 500;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@SpyBean
+	private ItemSearchIndex searchIndex;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User owner;
+	private String word;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		// своё слово на тест: база общая для всех тестов
+		word = "w" + UUID.randomUUID().toString().replace("-", "");
+	}
+
+	@Test
+	void rowsChangedBehindTheIndexAreFilteredOut() {
+		ItemDto renamed = itemService.create(owner.getId(), item(word + " drill"));
+		ItemDto unavailable = itemService.create(owner.getId(), item(word + " saw"));
+		ItemDto kept = itemService.create(owner.getId(), item(word + " hammer"));
+
+		// как изменение на другом экземпляре, которое ещё не дошло через ленту
+		Item stored = itemRepository.findById(renamed.getId()).orElseThrow();
+		stored.setName("drill");
+		stored.setDescription("drill");
+		itemRepository.save(stored);
+		stored = itemRepository.findById(unavailable.getId()).orElseThrow();
+		stored.setAvailable(false);
+		itemRepository.save(stored);
+
+		assertEquals(List.of(kept.getId()), ids(itemService.search(word, null, null, 0, 10)));
+	}
+
+	@Test
+	void windowExcludesBookedItemsAndKeepsTouchingOnes() {
+		LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+		LocalDateTime end = start.plusDays(2);
+		ItemDto overlapping = create();
+		ItemDto endsAtStart = create();
+		ItemDto startsAtEnd = create();
+		ItemDto waiting = create();
+		ItemDto free = create();
+		book(overlapping, start.plusDays(1), end.plusDays(1), Booking.BookingStatus.APPROVED);
+		book(endsAtStart, start.minusDays(1), start, Booking.BookingStatus.APPROVED);
+		book(startsAtEnd, end, end.plusDays(1), Booking.BookingStatus.APPROVED);
+		book(waiting, start, end, Booking.BookingStatus.WAITING);
+
+		List<Long> expected = List.of(endsAtStart.getId(), startsAtEnd.getId(), waiting.getId(), free.getId());
+		assertEquals(expected, ids(itemService.search(word, start, end, 0, null)));
+		assertEquals(expected, ids(searchWithoutIndex(start, end, 0, null)));
+	}
+
+	@Test
+	void pageCrossesFreeCheckChunk() {
+		LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+		LocalDateTime end = start.plusDays(2);
+		List<ItemDto> items = itemService.createBatch(owner.getId(),
+				IntStream.range(0, FREE_CHECK_CHUNK + 10).mapToObj(i -> item(word)).toList());
+		// занятые в первой пачке кандидатов: страница добирается из второй
+		List<Long> free = new ArrayList<>(ids(items));
+		for (ItemDto item : items.subList(0, 10)) {
+			book(item, start, end, Booking.BookingStatus.APPROVED);
+			free.remove(item.getId());
+		}
+
+		List<Long> expected = free.subList(FREE_CHECK_CHUNK - 20, FREE_CHECK_CHUNK);
+		assertEquals(expected, ids(itemService.search(word, start, end, FREE_CHECK_CHUNK - 20, 20)));
+		assertEquals(expected, ids(searchWithoutIndex(start, end, FREE_CHECK_CHUNK - 20, 20)));
+		assertEquals(List.of(), ids(itemService.search(word, start, end, FREE_CHECK_CHUNK, 20)));
+	}
+
+	@Test
+	void windowNeedsBothEnds() throws Exception {
+		String time = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS).toString();
+
+		mvc.perform(get("/items/search").param("text", word).param("start", time))
+				.andExpect(status().isBadRequest());
+		mvc.perform(get("/items/search").param("text", word).param("end", time))
+				.andExpect(status().isBadRequest());
+	}
+
+	private List<ItemDto> searchWithoutIndex(LocalDateTime start, LocalDateTime end, int from, Integer size) {
+		doReturn(false).when(searchIndex).isReady();
+		try {
+			return itemService.search(word, start, end, from, size);
+		} finally {
+			doCallRealMethod().when(searchIndex).isReady();
+		}
+	}
+
+	private ItemDto create() {
+		return itemService.create(owner.getId(), item(word));
+	}
+
+	private void book(ItemDto item, LocalDateTime start, LocalDateTime end, Booking.BookingStatus status) {
+		bookingRepository.save(Booking.builder()
+				.item(itemRepository.getReferenceById(item.getId()))
+				.booker(owner)
+				.start(start)
+				.end(end)
+				.status(status)
+				.build());
+	}
+
+	private ItemDto item(String name) {
+		return ItemDto.builder().name(name).description(name).available(true).build();
+	}
+
+	private static List<Long> ids(List<ItemDto> items) {
+		return items.stream().map(ItemDto::getId).toList();
+	}
+}
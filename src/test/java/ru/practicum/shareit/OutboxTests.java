@@ -0,0 +1,233 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.mapper.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.OutboxCleaner;
+import ru.practicum.shareit.outbox.service.OutboxRelay;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Event feed: offsets follow commit order without gaps, SSE subscribers resume from {@code Last-Event-ID},
+ * payloads carry no contact data and delivered events are cleaned up.
+ *
+ * <p>Scheduled relay and cleanup are pushed out, the tests run them explicitly.
+ */
+@SpringBootTest(properties = {
+		"shareit.outbox.relay-interval=PT1H",
+		"shareit.outbox.retention.interval=PT1H",
+		"shareit.outbox.retention.period=PT0S"
+})
+@AutoConfigureMockMvc
+class OutboxTests {
+
+	private static final long WAIT_MILLIS = 10_000;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private OutboxCleaner cleaner;
+
+	@Autowired
+	private OutboxEventRepository repository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Test
+	void offsetsFollowCommitOrder() throws Exception {
+		long aggregateId = newAggregateId();
+		CountDownLatch appended = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+
+		// первое событие пишется раньше (меньший id), но коммитится позже второго
+		CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+			append(aggregateId, "slow");
+			appended.countDown();
+			await(commit);
+		}));
+		await(appended);
+		transactionTemplate.executeWithoutResult(s -> append(aggregateId, "fast"));
+
+		relay.relay();
+		List<OutboxEventDto> beforeSlowCommit = feedOf(aggregateId);
+		assertEquals(1, beforeSlowCommit.size());
+		assertTrue(beforeSlowCommit.getFirst().getPayload().contains("fast"));
+
+		commit.countDown();
+		slow.get(10, TimeUnit.SECONDS);
+		relay.relay();
+		List<OutboxEventDto> feed = feedOf(aggregateId);
+		assertEquals(2, feed.size());
+		assertTrue(feed.get(1).getPayload().contains("slow"));
+		assertTrue(feed.get(1).getOffset() > feed.get(0).getOffset());
+	}
+
+	@Test
+	void feedHasNoGaps() {
+		long after = repository.findLastOffset();
+		long aggregateId = newAggregateId();
+		for (int i = 0; i < 3; i++) {
+			int n = i;
+			transactionTemplate.executeWithoutResult(s -> append(aggregateId, "event " + n));
+		}
+		relay.relay();
+
+		List<OutboxEventDto> feed = outboxService.getEvents(after, 1000);
+		for (int i = 0; i < feed.size(); i++) {
+			assertEquals(after + i + 1, feed.get(i).getOffset());
+		}
+		assertEquals(3, feed.stream().filter(e -> e.getAggregateId() == aggregateId).count());
+	}
+
+	@Test
+	void streamResumesAfterLastEventId() throws Exception {
+		long aggregateId = newAggregateId();
+		for (int i = 0; i < 3; i++) {
+			int n = i;
+			transactionTemplate.executeWithoutResult(s -> append(aggregateId, "event " + n));
+		}
+		relay.relay();
+		List<OutboxEventDto> feed = feedOf(aggregateId);
+
+		MockHttpServletResponse stream = mvc.perform(get("/events/stream")
+						.header("Last-Event-ID", feed.get(0).getOffset()))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+
+		String replay = await(stream, "id:" + feed.get(2).getOffset() + "\n");
+
+		assertFalse(replay.contains("id:" + feed.get(0).getOffset() + "\n"));
+		assertTrue(replay.contains("id:" + feed.get(1).getOffset() + "\n"));
+		assertTrue(replay.contains("id:" + feed.get(2).getOffset() + "\n"));
+		assertTrue(replay.indexOf("event 1") < replay.indexOf("event 2"));
+	}
+
+	@Test
+	void bookingEventsCarryNoContactData() throws Exception {
+		User owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		User booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		Item item = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+		long after = repository.findLastOffset();
+
+		BookingCreateDto dto = new BookingCreateDto();
+		dto.setItemId(item.getId());
+		dto.setStart(LocalDateTime.now().plusDays(1));
+		dto.setEnd(LocalDateTime.now().plusDays(2));
+		bookingService.create(booker.getId(), dto);
+		relay.relay();
+
+		String body = mvc.perform(get("/events").param("after", Long.toString(after)))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+		assertTrue(body.contains("\"id\":" + booker.getId()));
+		assertFalse(body.contains(booker.getEmail()));
+		assertFalse(body.contains("\"name\":\"booker\""));
+	}
+
+	@Test
+	void deliveredEventsAreDeleted() {
+		long aggregateId = newAggregateId();
+		transactionTemplate.executeWithoutResult(s -> append(aggregateId, "old"));
+		relay.relay();
+		assertEquals(1, feedOf(aggregateId).size());
+
+		transactionTemplate.executeWithoutResult(s -> append(aggregateId, "not relayed"));
+		cleaner.clean();
+
+		assertTrue(feedOf(aggregateId).isEmpty());
+		relay.relay();
+		assertEquals(1, feedOf(aggregateId).size());
+	}
+
+	private void append(long aggregateId, String text) {
+		outboxService.append(OutboxEvent.AggregateType.ITEM, aggregateId, OutboxEvent.EventType.ITEM_UPDATED,
+				Map.of("text", text));
+	}
+
+	private List<OutboxEventDto> feedOf(long aggregateId) {
+		return repository.findAll().stream()
+				.filter(e -> e.getAggregateId() == aggregateId && e.getEventOffset() != null)
+				.map(OutboxEventMapper::toDto)
+				.sorted(Comparator.comparingLong(OutboxEventDto::getOffset))
+				.toList();
+	}
+
+	/**
+	 * Waits for the subscriber's sender thread; returns what the stream has got by then.
+	 */
+	private static String await(MockHttpServletResponse stream, String text) throws Exception {
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (!stream.getContentAsString().contains(text) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		return stream.getContentAsString();
+	}
+
+	private static long newAggregateId() {
+		return ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
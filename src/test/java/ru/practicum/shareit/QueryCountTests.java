@@ -0,0 +1,197 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.JdbcStatementMetricsFilter;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listing endpoints must cost a fixed number of SQL statements, whatever the number of rows.
+ *
+ * <p>Statements are taken from {@link JdbcStatementMetricsFilter}, which counts only the request thread:
+ * scheduled jobs (outbox relay, summary refresh) running at the same time do not affect the result.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountTests {
+
+	private static final String HEADER_USER = "X-Sharer-User-Id";
+	private static final int ROWS = 20;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private ItemRequestRepository requestRepository;
+
+	private User owner;
+	private User booker;
+	private Booking booking;
+	private final List<Long> itemIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+		for (int i = 0; i < ROWS; i++) {
+			ItemRequest request = requestRepository.save(ItemRequest.builder()
+					.description("request " + i)
+					.requestor(booker)
+					.created(LocalDateTime.now())
+					.build());
+			Item item = itemRepository.save(Item.builder()
+					.name("item " + i)
+					.description("description " + i)
+					.available(true)
+					.owner(owner)
+					.request(request)
+					.build());
+			itemIds.add(item.getId());
+			booking = bookingRepository.save(Booking.builder()
+					.item(item)
+					.booker(booker)
+					.start(start.plusDays(i))
+					.end(start.plusDays(i).plusHours(1))
+					.status(Booking.BookingStatus.APPROVED)
+					.build());
+		}
+	}
+
+	@Test
+	void userBookings() throws Exception {
+		assertStatements(2, get("/bookings").header(HEADER_USER, booker.getId()));
+	}
+
+	@Test
+	void ownerBookings() throws Exception {
+		assertStatements(2, get("/bookings/owner").header(HEADER_USER, owner.getId()));
+	}
+
+	@Test
+	void bookingById() throws Exception {
+		assertStatements(1, get("/bookings/" + booking.getId()).header(HEADER_USER, owner.getId()));
+	}
+
+	@Test
+	void ownerItems() throws Exception {
+		assertStatements(4, get("/items").header(HEADER_USER, owner.getId()));
+	}
+
+	@Test
+	void otherRequests() throws Exception {
+		assertStatements(3, get("/requests/all").header(HEADER_USER, owner.getId()));
+	}
+
+	@Test
+	void itemsAvailability() throws Exception {
+		// проверка существования всех вещей одним запросом и загрузка календаря одним запросом
+		assertStatements(2, availability(itemIds));
+	}
+
+	@Test
+	void itemsAvailabilityWithMissingItem() throws Exception {
+		List<Long> ids = new ArrayList<>(itemIds);
+		ids.add(Long.MAX_VALUE);
+
+		assertStatements(1, status().isNotFound(), availability(ids));
+	}
+
+	@Test
+	void createItemsBatch() throws Exception {
+		String body = IntStream.range(0, ROWS)
+				.mapToObj(i -> "{\"name\":\"bulk " + i + "\",\"description\":\"bulk\",\"available\":true}")
+				.collect(Collectors.joining(",", "[", "]"));
+
+		// проверка пользователя, по одной выборке из последовательности и одному JDBC-батчу вставок
+		// для вещей и для событий outbox
+		assertStatements(5, post("/items/batch")
+				.header(HEADER_USER, owner.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body));
+	}
+
+	@Test
+	void notModifiedOwnerItems() throws Exception {
+		String etag = mvc.perform(get("/items").header(HEADER_USER, owner.getId()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// повторный опрос с тем же тегом не доходит до сервиса
+		assertStatements(0, status().isNotModified(), get("/items")
+				.header(HEADER_USER, owner.getId())
+				.header(HttpHeaders.IF_NONE_MATCH, etag));
+	}
+
+	private MockHttpServletRequestBuilder availability(List<Long> ids) {
+		LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+		return get("/items/availability")
+				.param("ids", ids.stream().map(String::valueOf).toArray(String[]::new))
+				.param("from", from.toString())
+				.param("to", from.plusDays(7).toString());
+	}
+
+	private void assertStatements(long budget, MockHttpServletRequestBuilder request) throws Exception {
+		assertStatements(budget, status().isOk(), request);
+	}
+
+	private void assertStatements(long budget,
+								  ResultMatcher expectedStatus,
+								  MockHttpServletRequestBuilder request) throws Exception {
+		double before = requestStatements();
+
+		mvc.perform(request).andExpect(expectedStatus);
+
+		long statements = Math.round(requestStatements() - before);
+		assertTrue(statements <= budget, () -> "Expected at most " + budget + " statements, got " + statements);
+	}
+
+	private double requestStatements() {
+		return meterRegistry.find(JdbcStatementMetricsFilter.REQUEST_STATEMENTS).summaries().stream()
+				.mapToDouble(DistributionSummary::totalAmount)
+				.sum();
+	}
+
+}
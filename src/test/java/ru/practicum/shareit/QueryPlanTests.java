@@ -0,0 +1,118 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.JdbcStatementCounter;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Plans of the repository hot-path queries must use the indexes from db/migration, never a full scan.
+ * The SQL is the one Hibernate generates: each repository method is run and the statements it prepares
+ * are taken from the statement inspector, then explained with their parameters unbound.
+ */
+@SpringBootTest
+class QueryPlanTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+	private static final List<Long> IDS = List.of(1L, 2L, 3L);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@SpyBean
+	private JdbcStatementCounter statementInspector;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private BookingHistoryRepository bookingHistoryRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private ItemRequestRepository itemRequestRepository;
+
+	@TestFactory
+	Stream<DynamicTest> usesIndex() {
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		// BookingRepositoryCustom: listings, ALL и PAST идут через BookingHistory (union с архивом)
+		for (BookingState state : BookingState.values()) {
+			queries.put("findPage by booker, " + state,
+					() -> bookingRepository.findPage(BookingFilter.byBooker(1L, state), null, 0, 10));
+			queries.put("findPage by owner, " + state,
+					() -> bookingRepository.findPage(BookingFilter.byOwner(1L, state), null, 0, 10));
+		}
+		// BookingRepository: overlap, availability, last/next
+		queries.put("existsOverlap",
+				() -> bookingRepository.existsOverlap(1L, Booking.BookingStatus.APPROVED, NOW, NOW.plusDays(1)));
+		queries.put("findBusyItemIds",
+				() -> bookingRepository.findBusyItemIds(IDS, Booking.BookingStatus.APPROVED, NOW, NOW.plusDays(1)));
+		queries.put("findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore",
+				() -> bookingRepository.findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(
+						IDS, Booking.BookingStatus.APPROVED, NOW, NOW.plusDays(1)));
+		queries.put("findLastAndNext", () -> bookingRepository.findLastAndNext(IDS, NOW));
+		// BookingHistoryRepository: lookup by id, comment eligibility
+		queries.put("findWithItemAndBookerById", () -> bookingHistoryRepository.findWithItemAndBookerById(1L));
+		queries.put("existsByBooker_IdAndItem_IdAndEndIsBeforeAndStatus",
+				() -> bookingHistoryRepository.existsByBooker_IdAndItem_IdAndEndIsBeforeAndStatus(
+						1L, 1L, NOW, Booking.BookingStatus.APPROVED));
+		// ItemRepository
+		queries.put("findByOwner_Id", () -> itemRepository.findByOwner_Id(1L));
+		queries.put("findByRequest_IdIn", () -> itemRepository.findByRequest_IdIn(IDS));
+		// CommentRepository
+		Sort byCreated = Sort.by(Sort.Direction.DESC, "created");
+		queries.put("findByItem_Id", () -> commentRepository.findByItem_Id(1L, byCreated));
+		queries.put("findByItem_IdIn", () -> commentRepository.findByItem_IdIn(IDS, byCreated));
+		// ItemRequestRepository
+		queries.put("findOwn", () -> itemRequestRepository.findOwn(1L, 0, 10));
+
+		return queries.entrySet().stream()
+				.map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertIndexed(query.getValue())));
+	}
+
+	private void assertIndexed(Runnable query) {
+		for (String sql : statements(query)) {
+			String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+
+			assertFalse(plan.contains("tableScan"), () -> "Full scan in plan:\n" + plan);
+		}
+	}
+
+	private List<String> statements(Runnable query) {
+		clearInvocations(statementInspector);
+		query.run();
+
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(statementInspector, atLeastOnce()).inspect(sql.capture());
+		return sql.getAllValues();
+	}
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit;
+
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * {@code GET /reactive/bookings} returns exactly what {@code GET /bookings?stream=true} does, archived
+ * bookings included, for every state and for booker and owner. No R2DBC driver for H2 here, so the reactive
+ * {@link DatabaseClient} runs the SQL it is given over the test database through JDBC.
+ */
+@SpringBootTest(properties = {
+		"shareit.reactive.r2dbc.url=r2dbc:postgresql://localhost:5432/shareit",
+		"shareit.bookings.archive.interval=PT1H"
+})
+@AutoConfigureMockMvc
+class ReactiveBookingTests {
+
+	private static final String HEADER_USER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private BookingArchiver archiver;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@MockBean
+	private DatabaseClient reactiveDatabaseClient;
+
+	private User owner;
+	private User booker;
+
+	@BeforeEach
+	void setUp() {
+		when(reactiveDatabaseClient.sql(anyString())).thenAnswer(inv -> jdbcSpec(inv.getArgument(0)));
+
+		owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+		booker = userRepository.save(User.builder().name("booker").email(UUID.randomUUID() + "@mail.ru").build());
+		Item item = itemRepository.save(Item.builder()
+				.name("drill")
+				.description("drill")
+				.available(true)
+				.owner(owner)
+				.build());
+
+		LocalDateTime now = LocalDateTime.now();
+		booking(item, now.plusDays(1), Booking.BookingStatus.WAITING);
+		booking(item, now.plusDays(2), Booking.BookingStatus.REJECTED);
+		booking(item, now.minusMinutes(30), Booking.BookingStatus.APPROVED);
+		booking(item, now.minusDays(10), Booking.BookingStatus.APPROVED);
+		// эти два уходят в архив
+		booking(item, now.minusDays(150), Booking.BookingStatus.REJECTED);
+		booking(item, now.minusDays(200), Booking.BookingStatus.APPROVED);
+		booking(item, now.minusDays(180), Booking.BookingStatus.WAITING);
+
+		archiver.archive();
+	}
+
+	@Test
+	void reactiveListingMatchesStreamedListing() throws Exception {
+		for (BookingState state : BookingState.values()) {
+			assertEquals(read("/bookings?stream=true&state=" + state, booker),
+					read("/reactive/bookings?state=" + state, booker), "booker, " + state);
+			assertEquals(read("/bookings/owner?stream=true&state=" + state, owner),
+					read("/reactive/bookings/owner?state=" + state, owner), "owner, " + state);
+		}
+
+		// пять живых и два из архива
+		assertEquals(7, read("/reactive/bookings?state=ALL", booker).lines().count());
+	}
+
+	private String read(String url, User user) throws Exception {
+		MvcResult result = mvc.perform(get(url).header(HEADER_USER, user.getId()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mvc.perform(asyncDispatch(result)).andReturn().getResponse().getContentAsString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private DatabaseClient.GenericExecuteSpec jdbcSpec(String sql) {
+		Map<String, Object> params = new HashMap<>();
+		DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+		when(spec.bind(anyString(), any())).thenAnswer(inv -> {
+			params.put(inv.getArgument(0), inv.getArgument(1));
+			return spec;
+		});
+		when(spec.map(any(Function.class))).thenAnswer(inv -> {
+			Function<Readable, Object> mapper = inv.getArgument(0);
+			RowsFetchSpec<Object> rows = mock(RowsFetchSpec.class);
+			when(rows.all()).thenReturn(Flux.defer(() -> Flux.fromIterable(
+					jdbcTemplate.query(sql, params, (rs, n) -> mapper.apply(readable(rs))))));
+			return rows;
+		});
+		return spec;
+	}
+
+	private static Readable readable(ResultSet rs) {
+		return new Readable() {
+			@Override
+			public <T> T get(int index, Class<T> type) {
+				try {
+					return rs.getObject(index + 1, type);
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+
+			@Override
+			public <T> T get(String name, Class<T> type) {
+				try {
+					return rs.getObject(name, type);
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+	}
+
+	private void booking(Item item, LocalDateTime start, Booking.BookingStatus status) {
+		bookingRepository.save(Booking.builder()
+				.item(item)
+				.booker(booker)
+				.start(start)
+				.end(start.plusHours(1))
+				.status(status)
+				.build());
+	}
+}
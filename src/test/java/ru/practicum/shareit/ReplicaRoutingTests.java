@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary and replica are two independent H2 databases, so a read shows which one served it.
+ */
+@SpringBootTest(properties = {
+		"shareit.datasource.replica-urls=" + ReplicaRoutingTests.REPLICA_URL,
+		"shareit.datasource.replica-probe-interval=PT1H",
+		"shareit.datasource.replica-max-lag=1h"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+	private static final String HEADER_USER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ReplicaRoutingDataSource routingDataSource;
+
+	@BeforeAll
+	static void migrateReplica() {
+		Flyway.configure()
+				.dataSource(REPLICA_URL, "sa", "")
+				.locations("classpath:db/migration/common", "classpath:db/migration/h2")
+				.placeholders(Map.of("id_allocation_size", "50"))
+				.load()
+				.migrate();
+	}
+
+	@Test
+	void readsGoToReplicaUntilUserWrites() throws Exception {
+		User owner = userRepository.save(User.builder().name("owner").email(UUID.randomUUID() + "@mail.ru").build());
+
+		JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+		replica.update("insert into users (id, name, email) values (?, ?, ?)",
+				owner.getId(), owner.getName(), owner.getEmail());
+		replica.update("insert into items (name, description, is_available, owner_id) values (?, ?, true, ?)",
+				"replica item", "replica", owner.getId());
+		routingDataSource.probeReplicas();
+
+		mvc.perform(get("/items").header(HEADER_USER, owner.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name").value("replica item"));
+
+		mvc.perform(post("/items")
+						.header(HEADER_USER, owner.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"primary item\",\"description\":\"primary\",\"available\":true}"))
+				.andExpect(status().isOk());
+
+		// реплика не догнала запись владельца -> его чтение идёт в primary
+		mvc.perform(get("/items").header(HEADER_USER, owner.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name").value("primary item"));
+	}
+
+}
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Coalescing of intervals and the single-lookup overlap check, with transactions simulated by
+ * {@link TransactionSynchronizationManager}.
+ */
+class BookingIntervalIndexTests {
+
+	private static final Long ITEM_ID = 1L;
+	private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+	private final BookingRepository bookingRepository = mock(BookingRepository.class);
+	private final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 1000, Duration.ofMinutes(30));
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void overlappingIntervalsAreMerged() {
+		NavigableMap<LocalDateTime, LocalDateTime> timeline = new TreeMap<>();
+		BookingIntervalIndex.merge(timeline, at(10), at(14));
+		BookingIntervalIndex.merge(timeline, at(11), at(12));
+		BookingIntervalIndex.merge(timeline, at(13), at(16));
+
+		assertEquals(Map.of(at(10), at(16)), timeline);
+	}
+
+	@Test
+	void touchingIntervalsAreMerged() {
+		NavigableMap<LocalDateTime, LocalDateTime> timeline = new TreeMap<>();
+		BookingIntervalIndex.merge(timeline, at(12), at(14));
+		BookingIntervalIndex.merge(timeline, at(16), at(18));
+		BookingIntervalIndex.merge(timeline, at(10), at(12));
+		BookingIntervalIndex.merge(timeline, at(14), at(16));
+
+		assertEquals(Map.of(at(10), at(18)), timeline);
+	}
+
+	@Test
+	void intervalSpanningSeveralIsMergedIntoOne() {
+		NavigableMap<LocalDateTime, LocalDateTime> timeline = new TreeMap<>();
+		BookingIntervalIndex.merge(timeline, at(10), at(11));
+		BookingIntervalIndex.merge(timeline, at(12), at(13));
+		BookingIntervalIndex.merge(timeline, at(20), at(21));
+		BookingIntervalIndex.merge(timeline, at(9), at(15));
+
+		assertEquals(Map.of(at(9), at(15), at(20), at(21)), timeline);
+	}
+
+	@Test
+	void overlapIsCheckedAgainstIntervalStartedBeforeEnd() {
+		approved(at(10), at(12), at(14), at(16));
+
+		inTransaction(() -> {
+			index.lock(ITEM_ID);
+			assertTrue(index.overlaps(ITEM_ID, at(9), at(11)));
+			assertTrue(index.overlaps(ITEM_ID, at(11), at(15)));
+			assertTrue(index.overlaps(ITEM_ID, at(8), at(20)));
+			assertTrue(index.overlaps(ITEM_ID, at(15), at(15).plusMinutes(1)));
+			// конец одного равен началу другого - не пересечение
+			assertFalse(index.overlaps(ITEM_ID, at(12), at(14)));
+			assertFalse(index.overlaps(ITEM_ID, at(8), at(10)));
+			assertFalse(index.overlaps(ITEM_ID, at(16), at(17)));
+		});
+	}
+
+	@Test
+	void approvalIsVisibleInSameTransactionAndIndexedOnCommit() {
+		approved();
+
+		inTransaction(() -> {
+			index.lock(ITEM_ID);
+			index.addOnCommit(booking(at(10), at(12)));
+			assertTrue(index.overlaps(ITEM_ID, at(11), at(13)));
+		});
+		inTransaction(() -> {
+			index.lock(ITEM_ID);
+			assertTrue(index.overlaps(ITEM_ID, at(11), at(13)));
+		});
+	}
+
+	@Test
+	void rolledBackApprovalIsNotIndexed() {
+		approved();
+
+		TransactionSynchronizationManager.initSynchronization();
+		index.lock(ITEM_ID);
+		index.overlaps(ITEM_ID, at(10), at(12));
+		index.addOnCommit(booking(at(10), at(12)));
+		TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		inTransaction(() -> {
+			index.lock(ITEM_ID);
+			assertFalse(index.overlaps(ITEM_ID, at(10), at(12)));
+		});
+	}
+
+	@Test
+	void evictedTimelineIsReloadedFromDatabase() {
+		BookingIntervalIndex expiring = new BookingIntervalIndex(bookingRepository, 1000, Duration.ZERO);
+		approved();
+
+		inTransaction(() -> {
+			expiring.lock(ITEM_ID);
+			assertFalse(expiring.overlaps(ITEM_ID, at(10), at(12)));
+			expiring.addOnCommit(booking(at(10), at(12)));
+		});
+		// линия уже вытеснена, одобрение после коммита видно только в базе
+		approved(at(10), at(12));
+		inTransaction(() -> {
+			expiring.lock(ITEM_ID);
+			assertTrue(expiring.overlaps(ITEM_ID, at(11), at(13)));
+		});
+
+		verify(bookingRepository, times(2))
+				.findByItem_IdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(Booking.BookingStatus.APPROVED), any());
+	}
+
+	@Test
+	void checkRequiresItemLock() {
+		inTransaction(() -> assertThrows(IllegalStateException.class, () -> index.overlaps(ITEM_ID, at(10), at(12))));
+	}
+
+	/**
+	 * Approved bookings of the item in the database, as start/end pairs.
+	 */
+	private void approved(LocalDateTime... bounds) {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < bounds.length; i += 2) {
+			bookings.add(booking(bounds[i], bounds[i + 1]));
+		}
+		when(bookingRepository.findByItem_IdAndStatusAndEndIsAfter(eq(ITEM_ID), eq(Booking.BookingStatus.APPROVED), any()))
+				.thenReturn(bookings);
+	}
+
+	private static Booking booking(LocalDateTime start, LocalDateTime end) {
+		return Booking.builder()
+				.item(Item.builder().id(ITEM_ID).build())
+				.start(start)
+				.end(end)
+				.status(Booking.BookingStatus.APPROVED)
+				.build();
+	}
+
+	private static void inTransaction(Runnable action) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			action.run();
+			TransactionSynchronizationUtils.triggerAfterCommit();
+			TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static LocalDateTime at(int hour) {
+		return BASE.plusHours(hour);
+	}
+}
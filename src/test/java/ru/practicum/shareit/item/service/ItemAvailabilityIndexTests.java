@@ -0,0 +1,188 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto.FreeSlot;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex.Occupancy;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hour-slot arithmetic of the availability bitmaps, the horizon and caching of loads that race
+ * with approvals.
+ */
+class ItemAvailabilityIndexTests {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+	@Test
+	void partialHoursAreTaken() {
+		Occupancy occupancy = occupancy();
+		occupancy.set(at(10, 30), at(11, 15));
+
+		assertEquals(List.of(slot(at(9, 0), at(10, 0)), slot(at(12, 0), at(13, 0))),
+				occupancy.free(at(9, 0), at(13, 0)));
+	}
+
+	@Test
+	void windowInsideFreeHourKeepsItsBounds() {
+		assertEquals(List.of(slot(at(10, 30), at(11, 30))), occupancy().free(at(10, 30), at(11, 30)));
+	}
+
+	@Test
+	void touchingBookingsLeaveNoGapAndEndIsExclusive() {
+		Occupancy occupancy = occupancy();
+		occupancy.set(at(10, 0), at(11, 0));
+		occupancy.set(at(11, 0), at(12, 0));
+
+		assertEquals(List.of(slot(at(9, 0), at(10, 0)), slot(at(12, 0), at(13, 0))),
+				occupancy.free(at(9, 0), at(13, 0)));
+		assertEquals(List.of(slot(at(12, 0), at(13, 0))), occupancy.free(at(12, 0), at(13, 0)));
+	}
+
+	@Test
+	void bookingStartedBeforeBaseOnlyTakesHoursFromBase() {
+		Occupancy occupancy = new Occupancy(ItemAvailabilityIndex.slot(at(10, 0)), ItemAvailabilityIndex.slot(at(14, 0)),
+				new BitSet(), 0);
+		occupancy.set(at(8, 0), at(10, 30));
+
+		assertEquals(List.of(slot(at(11, 0), at(12, 0))), occupancy.free(at(10, 0), at(12, 0)));
+	}
+
+	@Test
+	void updateLeavesPublishedBitmapUnchanged() {
+		Occupancy published = occupancy();
+		Occupancy updated = published.with(at(10, 0), at(11, 0));
+
+		assertEquals(List.of(slot(at(10, 0), at(11, 0))), published.free(at(10, 0), at(11, 0)));
+		assertEquals(List.of(), updated.free(at(10, 0), at(11, 0)));
+	}
+
+	@Test
+	void windowStartingBeforeNowIsFreeFromNow() {
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+		when(bookingRepository.findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(any(), any(), any(), any()))
+				.thenReturn(List.of());
+		ItemAvailabilityIndex index = index(bookingRepository);
+
+		LocalDateTime before = LocalDateTime.now();
+		LocalDateTime to = before.plusHours(3);
+		List<FreeSlot> free = index.free(List.of(1L), before.minusHours(2), to).get(1L);
+		LocalDateTime after = LocalDateTime.now();
+
+		assertEquals(1, free.size());
+		assertFalse(free.getFirst().getStart().isBefore(before));
+		assertFalse(free.getFirst().getStart().isAfter(after));
+		assertEquals(to, free.getFirst().getEnd());
+		assertTrue(index.free(List.of(1L), before.minusHours(2), before.minusHours(1)).get(1L).isEmpty());
+	}
+
+	@Test
+	void bookingsPastTheLimitAreClamped() {
+		Occupancy occupancy = occupancy();
+		occupancy.set(at(20, 0), LocalDateTime.of(9999, 12, 31, 0, 0));
+
+		assertEquals(ItemAvailabilityIndex.slot(BASE.plusDays(1)) - occupancy.base(), occupancy.slots().length());
+		assertEquals(List.of(slot(at(19, 0), at(20, 0))), occupancy.free(at(19, 0), at(23, 0)));
+	}
+
+	@Test
+	void windowPastTheHorizonIsReadFromDatabase() {
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+		LocalDateTime from = LocalDateTime.now().plusYears(5).withMinute(0).withSecond(0).withNano(0);
+		when(bookingRepository.findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(any(), any(), any(), any()))
+				.thenReturn(List.of(Booking.builder()
+						.item(Item.builder().id(1L).build())
+						.start(from.plusHours(1))
+						.end(from.plusHours(2))
+						.build()));
+		ItemAvailabilityIndex index = index(bookingRepository);
+
+		assertEquals(List.of(slot(from, from.plusHours(1)), slot(from.plusHours(2), from.plusHours(3))),
+				index.free(List.of(1L), from, from.plusHours(3)).get(1L));
+		verify(bookingRepository).findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(
+				List.of(1L), Booking.BookingStatus.APPROVED, from, from.plusHours(3));
+	}
+
+	@Test
+	void approvalOfAnotherItemDuringLoadKeepsTheBitmap() throws Exception {
+		assertEquals(1, loadsAfterApprovalDuringLoad(2L));
+	}
+
+	@Test
+	void approvalOfTheItemDuringLoadIsNotCached() throws Exception {
+		assertEquals(2, loadsAfterApprovalDuringLoad(1L));
+	}
+
+	/**
+	 * Queries item 1 twice while an approval of {@code approvedItemId} arrives from the feed during
+	 * the first load; returns how many loads it took.
+	 */
+	private static int loadsAfterApprovalDuringLoad(Long approvedItemId) throws Exception {
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+		ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+		ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, objectMapper,
+				Duration.ofMinutes(1));
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+		OutboxEventDto approval = OutboxEventDto.builder()
+				.offset(1)
+				.type(OutboxEvent.EventType.BOOKING_APPROVED)
+				.payload(objectMapper.writeValueAsString(booking(approvedItemId, start, start.plusHours(1))))
+				.build();
+		when(bookingRepository.findByItem_IdInAndStatusAndEndIsAfterAndStartIsBefore(any(), any(), any(), any()))
+				.thenAnswer(invocation -> {
+					index.publish(List.of(approval));
+					return List.of();
+				})
+				.thenReturn(List.of());
+
+		index.free(List.of(1L), start, start.plusHours(1));
+		index.free(List.of(1L), start, start.plusHours(1));
+
+		return mockingDetails(bookingRepository).getInvocations().size();
+	}
+
+	private static ItemAvailabilityIndex index(BookingRepository bookingRepository) {
+		return new ItemAvailabilityIndex(bookingRepository, new ObjectMapper(), Duration.ofMinutes(1));
+	}
+
+	private static BookingDto booking(Long itemId, LocalDateTime start, LocalDateTime end) {
+		return BookingDto.builder()
+				.start(start)
+				.end(end)
+				.item(ItemDto.builder().id(itemId).build())
+				.build();
+	}
+
+	private static Occupancy occupancy() {
+		return new Occupancy(ItemAvailabilityIndex.slot(BASE), ItemAvailabilityIndex.slot(BASE.plusDays(1)),
+				new BitSet(), 0);
+	}
+
+	private static LocalDateTime at(int hour, int minute) {
+		return BASE.withHour(hour).withMinute(minute);
+	}
+
+	private static FreeSlot slot(LocalDateTime start, LocalDateTime end) {
+		return new FreeSlot(start, end);
+	}
+}
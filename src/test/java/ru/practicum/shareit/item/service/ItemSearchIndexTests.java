@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keeping the search index in sync: the startup fill and changes arriving through the feed.
+ */
+class ItemSearchIndexTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final ItemRepository itemRepository = mock(ItemRepository.class);
+	private final ItemSearchIndex index = new ItemSearchIndex(itemRepository, objectMapper);
+
+	@Test
+	void warmUpKeepsEntriesWrittenMeanwhile() {
+		// снимок прочитан до изменения, а записан в индекс после него
+		when(itemRepository.findByIdGreaterThanOrderById(eq(0L), any())).thenAnswer(invocation -> {
+			index.publish(List.of(event(OutboxEvent.EventType.ITEM_UPDATED, item(1L, "hammer", true))));
+			return List.of(Item.builder().id(1L).name("drill").description("tool").available(true).build());
+		});
+
+		index.warmUp();
+
+		assertEquals(List.of(1L), index.rank("hammer"));
+		assertEquals(List.of(), index.rank("drill"));
+	}
+
+	@Test
+	void changesFromFeedAreApplied() {
+		when(itemRepository.findByIdGreaterThanOrderById(eq(0L), any())).thenReturn(List.of());
+		index.warmUp();
+
+		index.publish(List.of(event(OutboxEvent.EventType.ITEM_CREATED, item(1L, "drill", true))));
+		assertEquals(List.of(1L), index.rank("drill"));
+
+		index.publish(List.of(event(OutboxEvent.EventType.ITEM_UPDATED, item(1L, "drill", false))));
+		assertEquals(List.of(), index.rank("drill"));
+	}
+
+	@Test
+	void eventWithoutItemIdIsSkipped() {
+		when(itemRepository.findByIdGreaterThanOrderById(eq(0L), any())).thenReturn(List.of());
+		index.warmUp();
+
+		OutboxEventDto withoutId = OutboxEventDto.builder()
+				.offset(1)
+				.aggregateType(OutboxEvent.AggregateType.ITEM)
+				.aggregateId(1L)
+				.type(OutboxEvent.EventType.ITEM_UPDATED)
+				.payload("{}")
+				.build();
+		// иначе OutboxRelay повторял бы пачку бесконечно
+		index.publish(List.of(withoutId, event(OutboxEvent.EventType.ITEM_CREATED, item(2L, "drill", true))));
+
+		assertEquals(List.of(2L), index.rank("drill"));
+	}
+
+	private OutboxEventDto event(OutboxEvent.EventType type, ItemDto item) {
+		try {
+			return OutboxEventDto.builder()
+					.offset(1)
+					.aggregateType(OutboxEvent.AggregateType.ITEM)
+					.aggregateId(item.getId())
+					.type(type)
+					.payload(objectMapper.writeValueAsString(item))
+					.build();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static ItemDto item(Long id, String name, boolean available) {
+		return ItemDto.builder().id(id).name(name).description("tool").available(available).build();
+	}
+}
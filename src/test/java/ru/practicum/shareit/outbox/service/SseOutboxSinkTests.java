@@ -0,0 +1,74 @@
+package ru.practicum.shareit.outbox.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delivery to SSE subscribers does not block the relay.
+ */
+class SseOutboxSinkTests {
+
+	private static final long WAIT_MILLIS = 10_000;
+
+	@Test
+	void publishDoesNotWaitForSubscriberAndLaggingSubscriberIsDisconnected() throws Exception {
+		OutboxEventRepository repository = mock(OutboxEventRepository.class);
+		CountDownLatch replayStarted = new CountDownLatch(1);
+		// повтор из таблицы зависает, как медленный клиент: очередь подписчика не разбирается
+		when(repository.findByEventOffsetGreaterThanOrderByEventOffset(anyLong(), any())).thenAnswer(invocation -> {
+			replayStarted.countDown();
+			new CountDownLatch(1).await();
+			return List.of();
+		});
+		SseOutboxSink sink = new SseOutboxSink(repository, Duration.ofMinutes(1), 2);
+
+		SseEmitter emitter = sink.subscribe(0);
+		assertTrue(replayStarted.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+		sink.publish(List.of(event(1), event(2)));
+		sink.publish(List.of(event(3)));
+
+		assertTrue(awaitCompleted(emitter));
+	}
+
+	private static boolean awaitCompleted(SseEmitter emitter) throws IOException, InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (System.currentTimeMillis() < deadline) {
+			try {
+				// до инициализации обработчиком send только копится, а после complete() бросает
+				emitter.send("probe");
+			} catch (IllegalStateException e) {
+				return true;
+			}
+			Thread.sleep(50);
+		}
+		return false;
+	}
+
+	private static OutboxEventDto event(long offset) {
+		return OutboxEventDto.builder()
+				.offset(offset)
+				.aggregateType(OutboxEvent.AggregateType.ITEM)
+				.aggregateId(1L)
+				.type(OutboxEvent.EventType.ITEM_UPDATED)
+				.payload("{}")
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+}